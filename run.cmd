@@ -3,14 +3,14 @@ setlocal
 
 cd /d %~dp0
 
-if not exist out mkdir out
+if not exist out\runtime mkdir out\runtime
 
-rem Compile (requires JDK on PATH)
-dir /s /b src\main\java\edu\*.java > out\sources.txt
-javac -cp "lib\weka.jar" -d out @out\sources.txt
+rem Compile the runtime only (requires JDK on PATH); it needs neither Weka nor the training module
+dir /s /b spp-runtime\src\main\java\*.java > out\runtime-sources.txt
+javac -d out\runtime @out\runtime-sources.txt
 
 rem Run UI
-java --add-opens java.base/java.lang=ALL-UNNAMED -cp "out;lib\weka.jar;src\main\resources" edu.spp.app.SwingApp
+java --add-opens java.base/java.lang=ALL-UNNAMED -cp "out\runtime" edu.spp.app.SwingApp
 
 endlocal
 
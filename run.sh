@@ -4,17 +4,16 @@ set -euo pipefail
 ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
 cd "$ROOT_DIR"
 
-mkdir -p out
+mkdir -p out/runtime
 
-# Compile
+# Compile the runtime only: it needs neither Weka nor the training module
 javac \
-  -cp "lib/weka.jar" \
-  -d out \
-  $(find src/main/java/edu -name "*.java")
+  -d out/runtime \
+  $(find spp-runtime/src/main/java -name "*.java")
 
 # Run UI
 java \
   --add-opens java.base/java.lang=ALL-UNNAMED \
-  -cp "out;lib/weka.jar;src/main/resources" \
+  -cp "out/runtime" \
   edu.spp.app.SwingApp
 
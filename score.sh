@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$ROOT_DIR"
+
+mkdir -p out/runtime
+
+# Compile the runtime only: it needs neither Weka nor the training module
+javac \
+  -d out/runtime \
+  $(find spp-runtime/src/main/java -name "*.java")
+
+# Score a CSV file headlessly: score.sh <input.csv> <output.csv> [--explain] [--metrics]
+java \
+  --add-opens java.base/java.lang=ALL-UNNAMED \
+  -cp "out/runtime" \
+  edu.spp.app.ScoreCsv "$@"
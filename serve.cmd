@@ -0,0 +1,15 @@
+@echo off
+setlocal
+
+cd /d %~dp0
+
+if not exist out\runtime mkdir out\runtime
+
+rem Compile the runtime only (requires JDK on PATH); it needs neither Weka nor the training module
+dir /s /b spp-runtime\src\main\java\*.java > out\runtime-sources.txt
+javac -d out\runtime @out\runtime-sources.txt
+
+rem Local JSON scoring server: serve.cmd [--port 8085] [--threads n] [--no-reload]
+java --add-opens java.base/java.lang=ALL-UNNAMED -cp "out\runtime" edu.spp.app.ScoringServer %*
+
+endlocal
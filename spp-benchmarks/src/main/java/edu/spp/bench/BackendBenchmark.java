@@ -0,0 +1,89 @@
+package edu.spp.bench;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.spp.ml.TrainModel;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+
+public final class BackendBenchmark {
+
+    private static final int ROWS = 4_000_000;
+    private static final int WEKA_ROWS = 200_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private BackendBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(42);
+        double[] study = new double[ROWS];
+        double[] attendance = new double[ROWS];
+        double[] participation = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            study[i] = random.nextDouble() * 40.0;
+            attendance[i] = 50.0 + random.nextDouble() * 50.0;
+            participation[i] = random.nextDouble() * 10.0;
+        }
+
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        try {
+            for (Predictor.Backend backend : Predictor.Backend.values()) {
+                int rows = backend == Predictor.Backend.WEKA ? WEKA_ROWS : ROWS;
+                run(backend.name(), PredictorOptions.defaults().withBackend(backend), study, attendance, participation, rows, singleThread);
+            }
+
+            // Slider inputs are whole numbers, which is what the lookup table serves directly.
+            for (int i = 0; i < ROWS; i++) {
+                study[i] = Math.floor(study[i]);
+                attendance[i] = Math.floor(attendance[i]);
+                participation[i] = Math.floor(participation[i]);
+            }
+            run("COMPILED (integer inputs)", PredictorOptions.defaults(),
+                    study, attendance, participation, ROWS, singleThread);
+            run("LOOKUP (integer inputs)", PredictorOptions.defaults().withSliderLookupTable(true),
+                    study, attendance, participation, ROWS, singleThread);
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+
+    private static void run(
+            String name,
+            PredictorOptions options,
+            double[] study,
+            double[] attendance,
+            double[] participation,
+            int rows,
+            ForkJoinPool pool
+    ) throws Exception {
+        long loadStart = System.nanoTime();
+        Predictor predictor = Predictor.load(TrainModel.DEFAULT_MODEL_PATH, options);
+        long loadNanos = System.nanoTime() - loadStart;
+
+        double[] h = Arrays.copyOf(study, rows);
+        double[] a = Arrays.copyOf(attendance, rows);
+        double[] p = Arrays.copyOf(participation, rows);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            predictor.predictBatch(h, a, p, false, pool);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            predictor.predictBatch(h, a, p, false, pool);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.printf(
+                Locale.US,
+                "%-26s load %7.1f ms, %7.2f ns/row (best of %d over %,d rows, single thread)%n",
+                name, loadNanos / 1e6, (double) best / rows, MEASURED_ROUNDS, rows);
+        if (predictor.lookupTableReport() != null) {
+            System.out.println("  " + predictor.lookupTableReport().toHumanString());
+        }
+    }
+}
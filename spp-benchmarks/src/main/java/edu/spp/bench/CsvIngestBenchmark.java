@@ -0,0 +1,155 @@
+package edu.spp.bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.spp.jmh.Datasets;
+import edu.spp.ml.StudentColumns;
+import edu.spp.ml.StudentCsvReader;
+import weka.core.Instances;
+import weka.core.converters.CSVLoader;
+
+// Reads a training export with Weka's CSVLoader and with StudentCsvReader (one thread and one per core),
+// each run in a fresh JVM so the heap figures are not polluted by the previous reader. Reports rows/s,
+// MB/s and the peak heap in use while reading, sampled every millisecond by a background thread.
+//
+// Usage: CsvIngestBenchmark <file.csv> [runs] [--no-weka]
+//        CsvIngestBenchmark --generate <rows> <file.csv>
+public final class CsvIngestBenchmark {
+
+    private static final String PROBE = "--probe";
+
+    private CsvIngestBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(PROBE)) {
+            probe(args[1], Path.of(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--generate")) {
+            generate(Long.parseLong(args[1]), Path.of(args[2]));
+            return;
+        }
+        if (args.length == 0) {
+            System.err.println("Usage: CsvIngestBenchmark <file.csv> [runs] [--no-weka] | --generate <rows> <file.csv>");
+            System.exit(2);
+            return;
+        }
+        Path csv = Path.of(args[0]);
+        int runs = args.length > 1 && !args[1].startsWith("--") ? Integer.parseInt(args[1]) : 3;
+        boolean weka = !Arrays.asList(args).contains("--no-weka");
+        int cores = Runtime.getRuntime().availableProcessors();
+        double mb = Files.size(csv) / 1048576.0;
+
+        System.out.printf(Locale.US, "%s: %.1f MB, %d cores, %d runs per reader (median shown)%n%n",
+                csv, mb, cores, runs);
+        System.out.printf(Locale.US, "%-28s %12s %10s %14s %10s %14s%n",
+                "reader", "rows", "time p50", "rows/s", "MB/s", "peak heap");
+        if (weka) measure("weka CSVLoader", "weka", csv, 1, runs, mb);
+        measure("StudentCsvReader, 1 thread", "columns", csv, 1, runs, mb);
+        if (cores > 1) measure("StudentCsvReader, " + cores + " threads", "columns", csv, cores, runs, mb);
+    }
+
+    private static void measure(String name, String reader, Path csv, int threads, int runs, double mb)
+            throws Exception {
+        long rows = 0;
+        long[] nanos = new long[runs];
+        long[] peak = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            String line = runProbe(reader, csv, threads);
+            if (line == null) {
+                System.out.printf(Locale.US, "%-28s %12s%n", name, "failed (see stderr)");
+                return;
+            }
+            String[] f = line.trim().split(" ");
+            rows = Long.parseLong(f[0]);
+            nanos[r] = Long.parseLong(f[1]);
+            peak[r] = Long.parseLong(f[2]);
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(peak);
+        double seconds = nanos[runs / 2] / 1e9;
+        System.out.printf(Locale.US, "%-28s %,12d %8.0fms %,14.0f %10.1f %12.1fMB%n",
+                name, rows, seconds * 1e3, rows / seconds, mb / seconds, peak[runs / 2] / 1048576.0);
+    }
+
+    private static String runProbe(String reader, Path csv, int threads) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CsvIngestBenchmark.class.getName());
+        command.add(PROBE);
+        command.add(reader);
+        command.add(csv.toString());
+        command.add(Integer.toString(threads));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String line;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            line = out.readLine();
+        }
+        return process.waitFor() == 0 ? line : null;
+    }
+
+    // Child JVM: read once, print "rows nanos peakHeapBytes".
+    private static void probe(String reader, Path csv, int threads) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        AtomicLong peak = new AtomicLong(memory.getHeapMemoryUsage().getUsed());
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        long rows;
+        if (reader.equals("weka")) {
+            CSVLoader loader = new CSVLoader();
+            loader.setSource(csv.toFile());
+            Instances data = loader.getDataSet();
+            rows = data.numInstances();
+        } else {
+            StudentColumns columns = StudentCsvReader.read(csv, threads);
+            rows = columns.size();
+        }
+        long nanos = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        System.out.println(rows + " " + nanos + " " + peak.get());
+    }
+
+    private static void generate(long rows, Path csv) throws Exception {
+        try (BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            out.write("student_id,weekly_self_study_hours,attendance_percentage,class_participation,total_score,grade\n");
+            StringBuilder sb = new StringBuilder(64);
+            Datasets.generate(rows, 42, (i, study, attendance, participation, score, grade) -> {
+                sb.setLength(0);
+                sb.append(i + 1).append(',').append(study).append(',').append(attendance).append(',')
+                        .append(participation).append(',').append(score).append(',').append(grade).append('\n');
+                out.append(sb);
+            });
+        }
+        System.out.printf(Locale.US, "Wrote %,d rows to %s (%.1f MB)%n", rows, csv, Files.size(csv) / 1048576.0);
+    }
+}
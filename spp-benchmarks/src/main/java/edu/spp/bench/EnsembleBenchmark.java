@@ -0,0 +1,193 @@
+package edu.spp.bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.spp.ml.BaggedEnsemble;
+import edu.spp.ml.DatasetCache;
+import edu.spp.ml.HistogramTree;
+import edu.spp.ml.Hyperparameters;
+import edu.spp.ml.ModelIO;
+import edu.spp.ml.PassFailDataset;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+import edu.spp.predict.ReferenceModel;
+import edu.spp.predict.TreeEnsemble;
+import edu.spp.predict.TreeModel;
+import weka.core.Instances;
+
+// How much a retrain changes the predictions, for one tree and for a bagged ensemble. Each retrain sees
+// a window of 90% of the training split that slides a little further each time, as successive exports
+// drop old records and add new ones, and the table shows the
+// share of test students whose prediction differs from the previous retrain, alongside accuracy, cost per
+// student (a FAIL predicted as PASS costs 5, the opposite 1) and training time. Then both models are served
+// through Predictor, on the compiled backend, and timed on the test rows in single-threaded batches.
+//
+// Trees are HistogramTree ones: J48 gives the same picture on the bundled dataset but takes minutes on
+// large exports; the ensemble trains them one per thread on --threads threads (default: one per core).
+//
+// Usage: EnsembleBenchmark [file.csv] [--trees n] [--retrains n] [--threads n]
+public final class EnsembleBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private EnsembleBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Path csv = null;
+        int trees = 25;
+        int retrains = 5;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = cores;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--trees" -> trees = Integer.parseInt(args[++i]);
+                case "--retrains" -> retrains = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> csv = Path.of(args[i]);
+            }
+        }
+
+        PassFailDataset data = DatasetCache.load(csv, null, cores).data();
+        data.shuffle(new Random(42));
+        int trainSize = (int) Math.round(data.size() * 0.80);
+        int retrainSize = (int) Math.round(trainSize * 0.90);
+        int testSize = data.size() - trainSize;
+        double[] h = new double[testSize];
+        double[] a = new double[testSize];
+        double[] p = new double[testSize];
+        byte[] actual = new byte[testSize];
+        copyTestRows(data, trainSize, h, a, p, actual);
+
+        System.out.printf(Locale.US, "%s: %,d training rows (%,d per retrain), %,d test rows, %d cores, %d trees on %d thread(s)%n%n",
+                csv == null ? "bundled dataset" : csv, trainSize, retrainSize, testSize, cores, trees, threads);
+        System.out.printf(Locale.US, "%-8s | %10s %9s %7s %8s | %10s %9s %7s %8s%n",
+                "retrain", "tree", "accuracy", "cost", "changed", "ensemble", "accuracy", "cost", "changed");
+
+        TreeModel tree = null;
+        TreeEnsemble ensemble = null;
+        int[] treeBefore = null;
+        int[] ensembleBefore = null;
+        double treeChanged = 0.0;
+        double ensembleChanged = 0.0;
+        int step = retrains > 1 ? (trainSize - retrainSize) / (retrains - 1) : 0;
+        for (int r = 1; r <= retrains; r++) {
+            int from = (r - 1) * step;
+            long t0 = System.nanoTime();
+            tree = HistogramTree.train(data, from, from + retrainSize, Hyperparameters.DEFAULT, 1).model();
+            long t1 = System.nanoTime();
+            BaggedEnsemble.Result bagged = BaggedEnsemble.train(
+                    data, from, from + retrainSize, Hyperparameters.DEFAULT, trees, true, threads, 1000L * r);
+            long t2 = System.nanoTime();
+            ensemble = bagged.ensemble();
+
+            int[] treeNow = predict(tree::distribution, h, a, p);
+            int[] ensembleNow = predict(ensemble::distribution, h, a, p);
+            double tc = treeBefore == null ? Double.NaN : changedPct(treeBefore, treeNow);
+            double ec = ensembleBefore == null ? Double.NaN : changedPct(ensembleBefore, ensembleNow);
+            if (treeBefore != null) {
+                treeChanged += tc;
+                ensembleChanged += ec;
+            }
+            double[] ts = score(treeNow, actual);
+            double[] es = score(ensembleNow, actual);
+            System.out.printf(Locale.US, "%-8d | %8.0fms %8.2f%% %7.3f %8s | %8.0fms %8.2f%% %7.3f %8s%n",
+                    r, (t1 - t0) / 1e6, ts[0], ts[1], percent(tc), (t2 - t1) / 1e6, es[0], es[1], percent(ec));
+            if (r == retrains) {
+                System.out.println("\n" + bagged.toHumanString());
+            }
+            treeBefore = treeNow;
+            ensembleBefore = ensembleNow;
+        }
+        if (retrains > 1) {
+            System.out.printf(Locale.US, "Predictions changed per retrain on average: tree %.2f%%, ensemble %.2f%%%n",
+                    treeChanged / (retrains - 1), ensembleChanged / (retrains - 1));
+        }
+
+        System.out.println();
+        Path dir = Files.createTempDirectory("spp-ensemble-bench");
+        File treeFile = dir.resolve("tree.sppm").toFile();
+        File ensembleFile = dir.resolve("ensemble.sppm").toFile();
+        try {
+            ModelIO.saveCompact(tree, treeFile);
+            ModelIO.saveEnsemble(ensemble, ensembleFile);
+            double single = time("tree", treeFile, h, a, p);
+            double voted = time("ensemble of " + ensemble.size(), ensembleFile, h, a, p);
+            System.out.printf(Locale.US, "Ensemble costs %.1fx one tree per prediction (%d vs %d nodes).%n",
+                    voted / single, ensemble.numNodes(), tree.tree().numNodes());
+        } finally {
+            Files.deleteIfExists(treeFile.toPath());
+            Files.deleteIfExists(ensembleFile.toPath());
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void copyTestRows(PassFailDataset data, int from, double[] h, double[] a, double[] p, byte[] actual) {
+        Instances test = data.toInstances(from, data.size());
+        for (int i = 0; i < test.numInstances(); i++) {
+            h[i] = test.instance(i).value(0);
+            a[i] = test.instance(i).value(1);
+            p[i] = test.instance(i).value(2);
+            actual[i] = (byte) test.instance(i).classValue();
+        }
+    }
+
+    private static int[] predict(ReferenceModel model, double[] h, double[] a, double[] p) throws Exception {
+        int[] out = new int[h.length];
+        for (int i = 0; i < h.length; i++) {
+            double[] dist = model.distribution(h[i], a[i], p[i]);
+            out[i] = dist[1] > dist[0] ? 1 : 0;
+        }
+        return out;
+    }
+
+    private static double changedPct(int[] before, int[] now) {
+        int changed = 0;
+        for (int i = 0; i < now.length; i++) {
+            if (before[i] != now[i]) changed++;
+        }
+        return 100.0 * changed / now.length;
+    }
+
+    // Accuracy in percent and misclassification cost per student.
+    private static double[] score(int[] predicted, byte[] actual) {
+        int correct = 0;
+        double cost = 0.0;
+        for (int i = 0; i < predicted.length; i++) {
+            if (predicted[i] == actual[i]) correct++;
+            else cost += actual[i] == PassFailDataset.FAIL ? 5.0 : 1.0;
+        }
+        return new double[] {100.0 * correct / predicted.length, cost / predicted.length};
+    }
+
+    private static String percent(double pct) {
+        return Double.isNaN(pct) ? "-" : String.format(Locale.US, "%.2f%%", pct);
+    }
+
+    private static double time(String name, File model, double[] h, double[] a, double[] p) throws Exception {
+        Predictor predictor = Predictor.load(model, PredictorOptions.defaults());
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        try {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                predictor.predictBatch(h, a, p, false, singleThread);
+            }
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                predictor.predictBatch(h, a, p, false, singleThread);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double nsPerRow = (double) best / h.length;
+            System.out.printf(Locale.US, "%-18s %7.2f ns/row (best of %d over %,d rows, single thread)%n",
+                    name, nsPerRow, MEASURED_ROUNDS, h.length);
+            return nsPerRow;
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package edu.spp.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.explain.J48Explainer;
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.ModelIO;
+import edu.spp.ml.TrainModel;
+import edu.spp.ml.TreeCompiler;
+import edu.spp.predict.StudentInput;
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+
+public final class ExplainerBenchmark {
+
+    private static final int INPUTS = 4_096;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 400;
+
+    private ExplainerBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Classifier model = ModelIO.load(TrainModel.DEFAULT_MODEL_PATH);
+        Instances header = DataPreprocessor.buildPredictionHeader();
+        J48Explainer explainer = J48Explainer.fromTree(TreeCompiler.export(model, header));
+
+        Random random = new Random(42);
+        StudentInput[] inputs = new StudentInput[INPUTS];
+        StudentInput[] sliderInputs = new StudentInput[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = new StudentInput(i, random.nextDouble() * 40.0, 50.0 + random.nextDouble() * 50.0, random.nextDouble() * 10.0);
+            // the UI and the CSV exports carry at most one decimal
+            sliderInputs[i] = new StudentInput(i, random.nextInt(401) / 10.0, 50.0 + random.nextInt(501) / 10.0, random.nextInt(101) / 10.0);
+        }
+
+        measure("path (StudentInput)", () -> {
+            int sink = 0;
+            for (StudentInput in : inputs) sink += explainer.decisionPath(in).size();
+            return sink;
+        });
+        measure("explain (full precision)", () -> {
+            int sink = 0;
+            for (StudentInput in : inputs) sink += explainer.explain(in, "PASS").englishText().length();
+            return sink;
+        });
+        measure("explain (one-decimal inputs)", () -> {
+            int sink = 0;
+            for (StudentInput in : sliderInputs) sink += explainer.explain(in, "PASS").englishText().length();
+            return sink;
+        });
+    }
+
+    private static void measure(String name, Round round) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink += round.run();
+
+        long bytesBefore = threads.getThreadAllocatedBytes(tid);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) sink += round.run();
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(tid) - bytesBefore;
+
+        double ops = (double) MEASURED_ROUNDS * INPUTS;
+        System.out.printf(Locale.US, "%-28s %8.1f ns/op %8.1f B/op (sink %d)%n", name, nanos / ops, bytes / ops, sink);
+    }
+
+    @FunctionalInterface
+    private interface Round {
+
+        int run();
+    }
+}
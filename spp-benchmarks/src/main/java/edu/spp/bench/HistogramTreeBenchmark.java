@@ -0,0 +1,98 @@
+package edu.spp.bench;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.DatasetCache;
+import edu.spp.ml.HistogramTree;
+import edu.spp.ml.Hyperparameters;
+import edu.spp.ml.PassFailDataset;
+import edu.spp.ml.TreeCompiler;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+// Trains the default settings on the same 80% of a dataset with Weka's J48 and with HistogramTree (one
+// thread, then one per core, or the thread counts given), and scores both on the remaining 20% through
+// the exported TreeModel: training time, leaves, accuracy and misclassification cost per student (a FAIL
+// predicted as PASS costs 5, the opposite 1). J48's time excludes building its Instances, which is shown
+// separately. Generate a large export with CsvIngestBenchmark --generate; J48 needs about 100 bytes of
+// heap per row, so give it e.g. -Xmx4g for 10M rows, or skip it with --no-j48.
+//
+// Usage: HistogramTreeBenchmark [file.csv] [--threads n,m,...] [--no-j48]
+public final class HistogramTreeBenchmark {
+
+    private HistogramTreeBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Path csv = null;
+        boolean j48 = true;
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>(cores > 1 ? List.of(1, cores) : List.of(1));
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--no-j48" -> j48 = false;
+                case "--threads" -> {
+                    threadCounts.clear();
+                    for (String t : args[++i].split(",")) threadCounts.add(Integer.parseInt(t.trim()));
+                }
+                default -> csv = Path.of(args[i]);
+            }
+        }
+
+        PassFailDataset data = DatasetCache.load(csv, null, cores).data();
+        data.shuffle(new Random(42));
+        int trainSize = (int) Math.round(data.size() * 0.80);
+        Instances test = data.toInstances(trainSize, data.size());
+
+        System.out.printf(Locale.US, "%s: %,d training rows, %,d test rows, %d cores%n%n",
+                csv == null ? "bundled dataset" : csv, trainSize, test.numInstances(), cores);
+        System.out.printf(Locale.US, "%-22s %10s %10s %8s %10s %8s%n",
+                "trainer", "train", "rows/s", "leaves", "accuracy", "cost");
+
+        if (j48) {
+            long t0 = System.nanoTime();
+            Instances train = data.toInstances(0, trainSize);
+            long t1 = System.nanoTime();
+            CostSensitiveClassifier model = Hyperparameters.DEFAULT.train(train);
+            long t2 = System.nanoTime();
+            train = null;
+            TreeModel tree = TreeCompiler.export(model, DataPreprocessor.buildPredictionHeader());
+            print("J48", t2 - t1, trainSize, tree, test);
+            System.out.printf(Locale.US, "%-22s %8.0fms%n", "  + building Instances", (t1 - t0) / 1e6);
+        }
+        for (int threads : threadCounts) {
+            HistogramTree.Result result = HistogramTree.train(data, 0, trainSize, Hyperparameters.DEFAULT, threads);
+            print("histogram, " + threads + " thread" + (threads == 1 ? "" : "s"), result.trainNanos(), trainSize,
+                    result.model(), test);
+            System.out.printf(Locale.US, "%-22s binning %.0fms, growing %.0fms, pruning %.0fms, %d leaves before pruning%n",
+                    "", result.binNanos() / 1e6, result.growNanos() / 1e6, result.pruneNanos() / 1e6,
+                    result.leavesBeforePruning());
+        }
+    }
+
+    private static void print(String name, long nanos, int rows, TreeModel model, Instances test) {
+        double[] score = score(model, test);
+        System.out.printf(Locale.US, "%-22s %8.0fms %,10.0f %8d %9.2f%% %8.3f%n",
+                name, nanos / 1e6, rows * 1e9 / nanos, model.tree().numLeaves(), score[0], score[1]);
+    }
+
+    // Accuracy in percent and misclassification cost per student.
+    private static double[] score(TreeModel model, Instances test) {
+        int correct = 0;
+        double cost = 0.0;
+        for (Instance row : test) {
+            double[] dist = model.distribution(row.value(0), row.value(1), row.value(2));
+            int predicted = dist[1] > dist[0] ? 1 : 0;
+            int actual = (int) row.classValue();
+            if (predicted == actual) correct++;
+            else cost += model.cost(actual, predicted);
+        }
+        return new double[] {100.0 * correct / test.numInstances(), cost / test.numInstances()};
+    }
+}
@@ -0,0 +1,191 @@
+package edu.spp.bench;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.app.ScoringServer;
+import edu.spp.predict.LatencyHistogram;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+
+// Closed-loop load on /predict over keep-alive connections: every connection sends its next request as
+// soon as the previous response is in. Starts the server in-process unless --target host:port is given.
+// Raw sockets keep the client cheap enough not to be what gets measured.
+//
+// Usage: HttpLoadTest [--seconds n] [--connections n] [--explain] [--batch rows] [--threads spec] [--target host:port]
+public final class HttpLoadTest {
+
+    private static final long WARMUP_NANOS = 3_000_000_000L;
+
+    private static volatile boolean measuring;
+    private static volatile boolean running = true;
+
+    private HttpLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int seconds = 10;
+        int connections = 32;
+        boolean explain = false;
+        int batchRows = 0;
+        String threads = "auto";
+        String target = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--connections" -> connections = Integer.parseInt(args[++i]);
+                case "--explain" -> explain = true;
+                case "--batch" -> batchRows = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = args[++i];
+                case "--target" -> target = args[++i];
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        ScoringServer server = null;
+        InetSocketAddress address;
+        if (target == null) {
+            Predictor predictor = Predictor.loadDefault(PredictorOptions.defaults().withSliderLookupTable(true).withCache(4_096));
+            server = ScoringServer.start(predictor, new InetSocketAddress("127.0.0.1", 0), ScoringServer.newExecutor(threads));
+            address = new InetSocketAddress("127.0.0.1", server.port());
+        } else {
+            int colon = target.lastIndexOf(':');
+            address = new InetSocketAddress(target.substring(0, colon), Integer.parseInt(target.substring(colon + 1)));
+        }
+
+        String path = (batchRows > 0 ? "/predict/batch" : "/predict") + (explain ? "" : "?explain=false");
+        List<Client> clients = new ArrayList<>();
+        for (int c = 0; c < connections; c++) {
+            Client client = new Client(address, path, batchRows, c);
+            clients.add(client);
+            client.start();
+        }
+
+        Thread.sleep(WARMUP_NANOS / 1_000_000);
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(seconds * 1_000L);
+        measuring = false;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running = false;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long errors = 0;
+        for (Client client : clients) {
+            client.join();
+            latency.merge(client.latency);
+            errors += client.errors;
+        }
+        if (server != null) server.close();
+
+        long requests = latency.snapshot().count();
+        System.out.printf(Locale.US, "%s, %d connections, %d cores, explain=%s, %.1f s%n",
+                path, connections, Runtime.getRuntime().availableProcessors(), explain, elapsed);
+        System.out.printf(Locale.US, "- %,d requests (%,.0f req/s%s), %d errors%n",
+                requests, requests / elapsed,
+                batchRows > 0 ? String.format(Locale.US, ", %,.0f rows/s", requests * (double) batchRows / elapsed) : "",
+                errors);
+        System.out.println("- latency " + latency.snapshot().toHumanString());
+    }
+
+    private static final class Client extends Thread {
+        final InetSocketAddress address;
+        final byte[][] requests;
+        final LatencyHistogram latency = new LatencyHistogram();
+        long errors;
+
+        Client(InetSocketAddress address, String path, int batchRows, int seed) {
+            super("http-load-" + seed);
+            this.address = address;
+            Random random = new Random(seed);
+            this.requests = new byte[256][];
+            for (int i = 0; i < requests.length; i++) {
+                StringBuilder body = new StringBuilder();
+                if (batchRows > 0) {
+                    body.append("{\"students\":[");
+                    for (int r = 0; r < batchRows; r++) {
+                        if (r > 0) body.append(',');
+                        appendStudent(body, r, random);
+                    }
+                    body.append("]}");
+                } else {
+                    appendStudent(body, i, random);
+                }
+                byte[] payload = body.toString().getBytes(StandardCharsets.UTF_8);
+                String head = "POST " + path + " HTTP/1.1\r\nHost: " + address.getHostString() + "\r\n"
+                        + "Content-Type: application/json\r\nContent-Length: " + payload.length + "\r\n\r\n";
+                byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+                byte[] request = new byte[headBytes.length + payload.length];
+                System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+                System.arraycopy(payload, 0, request, headBytes.length, payload.length);
+                requests[i] = request;
+            }
+        }
+
+        private static void appendStudent(StringBuilder sb, int id, Random random) {
+            sb.append(String.format(Locale.US,
+                    "{\"studentId\":%d,\"weeklySelfStudyHours\":%.1f,\"attendancePercentage\":%.1f,\"classParticipation\":%.1f}",
+                    id, random.nextInt(401) / 10.0, 50.0 + random.nextInt(501) / 10.0, random.nextInt(101) / 10.0));
+        }
+
+        @Override
+        public void run() {
+            int next = 0;
+            while (running) {
+                try (Socket socket = new Socket()) {
+                    socket.setTcpNoDelay(true);
+                    socket.connect(address);
+                    OutputStream out = socket.getOutputStream();
+                    InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+                    while (running) {
+                        byte[] request = requests[next++ & (requests.length - 1)];
+                        long t0 = System.nanoTime();
+                        out.write(request);
+                        out.flush();
+                        int status = readResponse(in);
+                        long nanos = System.nanoTime() - t0;
+                        if (!measuring) continue;
+                        if (status == 200) latency.record(nanos);
+                        else errors++;
+                    }
+                } catch (IOException e) {
+                    if (running && measuring) errors++;
+                }
+            }
+        }
+
+        // Reads one response with a Content-Length body and returns its status code.
+        private static int readResponse(InputStream in) throws IOException {
+            String statusLine = readLine(in);
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            long length = -1;
+            String line;
+            while (!(line = readLine(in)).isEmpty()) {
+                if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    length = Long.parseLong(line.substring(15).trim());
+                }
+            }
+            if (length < 0) throw new IOException("Response without Content-Length");
+            in.skipNBytes(length);
+            return status;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) throw new IOException("Connection closed");
+                if (b != '\r') sb.append((char) b);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package edu.spp.bench;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.DatasetCache;
+import edu.spp.ml.Hyperparameters;
+import edu.spp.ml.IncrementalTree;
+import edu.spp.ml.PassFailDataset;
+import edu.spp.ml.TreeCompiler;
+import edu.spp.predict.TreeModel;
+import weka.core.Instance;
+import weka.core.Instances;
+
+// Replays a dataset as weekly batches: 20% is held out for testing and the rest arrives in equal batches.
+// After each batch the incremental tree learns only that batch, while J48 is retrained on every row seen
+// so far, as TrainModel would. Both are scored through the exported TreeModel on the same test rows, so
+// the columns show what each costs per batch and how far the incremental model's accuracy and
+// misclassification cost (FAIL predicted as PASS costs 5, the opposite 1) trail a full retrain.
+//
+// Usage: IncrementalBenchmark [file.csv] [batches] [--no-retrain]
+public final class IncrementalBenchmark {
+
+    private IncrementalBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Path csv = args.length > 0 && !args[0].startsWith("--") ? Path.of(args[0]) : null;
+        int batches = args.length > 1 && !args[1].startsWith("--") ? Integer.parseInt(args[1]) : 10;
+        boolean retrain = !Arrays.asList(args).contains("--no-retrain");
+
+        PassFailDataset data = DatasetCache.load(csv, null, Runtime.getRuntime().availableProcessors()).data();
+        data.shuffle(new Random(42));
+        int trainSize = (int) Math.round(data.size() * 0.80);
+        Instances test = data.toInstances(trainSize, data.size());
+        Instances header = DataPreprocessor.buildPredictionHeader();
+
+        System.out.printf(Locale.US, "%s: %,d training rows in %d batches, %,d test rows%n%n",
+                csv == null ? "bundled dataset" : csv, trainSize, batches, test.numInstances());
+        System.out.printf(Locale.US, "%6s %10s | %10s %10s %9s %7s | %10s %9s %7s%n",
+                "batch", "rows seen", "update", "rows/s", "accuracy", "cost", "retrain", "accuracy", "cost");
+
+        IncrementalTree learner = new IncrementalTree(Hyperparameters.DEFAULT.costArray());
+        for (int b = 0; b < batches; b++) {
+            int from = (int) ((long) trainSize * b / batches);
+            int to = (int) ((long) trainSize * (b + 1) / batches);
+
+            long t0 = System.nanoTime();
+            learner.update(data, from, to);
+            long updateNanos = System.nanoTime() - t0;
+            double[] incremental = score(learner.export(), test);
+
+            String retrained = "";
+            if (retrain) {
+                Instances seen = data.toInstances(0, to);
+                long t1 = System.nanoTime();
+                TreeModel model = TreeCompiler.export(Hyperparameters.DEFAULT.train(seen), header);
+                long retrainNanos = System.nanoTime() - t1;
+                double[] full = score(model, test);
+                retrained = String.format(Locale.US, "%8.0fms %8.2f%% %7.3f", retrainNanos / 1e6, full[0], full[1]);
+            }
+            System.out.printf(Locale.US, "%6d %,10d | %8.1fms %,10.0f %8.2f%% %7.3f | %s  [%d splits]%n",
+                    b + 1, to, updateNanos / 1e6, (to - from) * 1e9 / updateNanos, incremental[0], incremental[1], retrained, learner.numSplits());
+        }
+        System.out.println();
+        System.out.println(learner.toHumanString());
+    }
+
+    // Accuracy in percent and misclassification cost per student.
+    private static double[] score(TreeModel model, Instances test) {
+        int correct = 0;
+        double cost = 0.0;
+        for (Instance row : test) {
+            double[] dist = model.distribution(row.value(0), row.value(1), row.value(2));
+            int predicted = dist[1] > dist[0] ? 1 : 0;
+            int actual = (int) row.classValue();
+            if (predicted == actual) correct++;
+            else cost += model.cost(actual, predicted);
+        }
+        return new double[] {100.0 * correct / test.numInstances(), cost / test.numInstances()};
+    }
+}
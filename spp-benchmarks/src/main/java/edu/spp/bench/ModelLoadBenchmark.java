@@ -0,0 +1,147 @@
+package edu.spp.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import edu.spp.ml.ModelIO;
+import edu.spp.ml.TrainModel;
+import edu.spp.predict.Predictor;
+
+// Startup cost of the runtime, measured three ways in fresh JVMs (StartupProbe), from process launch to
+// the first explained prediction:
+// - the Java-serialized model with Weka and the training module on the classpath (the old setup);
+// - the compact model on that same classpath;
+// - the compact model with nothing but spp-runtime (and a copy of the probe class) on the classpath.
+// Then ModelIO.read in a loop in this JVM, which is what a background reload pays per format.
+//
+// From benchmarks.jar the runtime is shaded in with everything else, so pass its own jar as runtimeClassPath.
+//
+// Usage: ModelLoadBenchmark [coldRuns] [serializedModel] [compactModel] [runtimeClassPath]
+public final class ModelLoadBenchmark {
+
+    private static final int WARM_WARMUP = 2_000;
+    private static final int WARM_MEASURED = 20_000;
+
+    private ModelLoadBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int coldRuns = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        File serialized = args.length > 1 ? new File(args[1]) : TrainModel.DEFAULT_MODEL_PATH;
+        File compact = args.length > 2 ? new File(args[2]) : TrainModel.DEFAULT_COMPACT_MODEL_PATH;
+        if (!compact.exists()) {
+            throw new IllegalStateException("Compact model not found, run ExportModel first: " + compact.getPath());
+        }
+
+        String fullClassPath = System.getProperty("java.class.path");
+        String runtimeClassPath = args.length > 3 ? args[3] : codeSource(Predictor.class);
+        if (runtimeClassPath.equals(codeSource(ModelLoadBenchmark.class))) {
+            throw new IllegalStateException("spp-runtime is not on the classpath on its own (" + runtimeClassPath
+                    + "); pass its jar, e.g. spp-runtime/target/spp-runtime-1.0.0.jar");
+        }
+        runtimeClassPath += File.pathSeparator + probeClassDirectory();
+
+        System.out.printf(Locale.US, "%-34s %10s %12s %12s %10s %10s%n",
+                "setup", "classpath", "launch p50", "uptime p50", "classes", "peak RSS");
+        cold("serialized model, full classpath", fullClassPath, serialized, coldRuns);
+        cold("compact model, full classpath", fullClassPath, compact, coldRuns);
+        cold("compact model, spp-runtime only", runtimeClassPath, compact, coldRuns);
+
+        System.out.println();
+        System.out.printf(Locale.US, "%-18s %14s %14s%n", "format", "warm read us", "alloc KB/read");
+        for (File file : new File[] {serialized, compact}) {
+            for (int i = 0; i < WARM_WARMUP; i++) ModelIO.read(file);
+            long allocStart = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < WARM_MEASURED; i++) ModelIO.read(file);
+            long nanos = System.nanoTime() - start;
+            long alloc = allocatedBytes() - allocStart;
+            System.out.printf(Locale.US, "%-18s %14.1f %14.1f%n",
+                    ModelIO.detect(file), nanos / 1e3 / WARM_MEASURED, alloc / 1024.0 / WARM_MEASURED);
+        }
+    }
+
+    private static void cold(String name, String classPath, File modelFile, int runs) throws Exception {
+        long[] launch = new long[runs];
+        long[] uptime = new long[runs];
+        long classes = 0;
+        long[] rss = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            long start = System.nanoTime();
+            String[] report = runProbe(classPath, modelFile).trim().split(" ");
+            launch[r] = System.nanoTime() - start;
+            uptime[r] = Long.parseLong(report[0]);
+            classes = Long.parseLong(report[1]);
+            rss[r] = Long.parseLong(report[2]);
+        }
+        Arrays.sort(launch);
+        Arrays.sort(uptime);
+        Arrays.sort(rss);
+        System.out.printf(Locale.US, "%-34s %8.1fMB %10.0fms %10dms %,10d %8.1fMB%n",
+                name, classPathBytes(classPath) / 1048576.0, launch[runs / 2] / 1e6, uptime[runs / 2], classes,
+                rss[runs / 2] / 1024.0);
+    }
+
+    private static String codeSource(Class<?> type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    // StartupProbe on its own, so the runtime-only JVM gets nothing else from this module.
+    private static Path probeClassDirectory() throws Exception {
+        Path dir = Files.createTempDirectory("startup-probe");
+        String classFile = StartupProbe.class.getName().replace('.', '/') + ".class";
+        Path target = dir.resolve(classFile);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = StartupProbe.class.getResourceAsStream("/" + classFile)) {
+            Files.copy(in, target);
+        }
+        return dir;
+    }
+
+    private static String runProbe(String classPath, File modelFile) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.add("-cp");
+        command.add(classPath);
+        command.add(StartupProbe.class.getName());
+        command.add(modelFile.getPath());
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        String line;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            line = out.readLine();
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IllegalStateException("Probe JVM failed for " + modelFile.getPath() + " on " + classPath);
+        }
+        return line;
+    }
+
+    private static long classPathBytes(String classPath) throws Exception {
+        long total = 0;
+        for (String entry : classPath.split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    total += files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+                }
+            } else if (Files.exists(path)) {
+                total += Files.size(path);
+            }
+        }
+        return total;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
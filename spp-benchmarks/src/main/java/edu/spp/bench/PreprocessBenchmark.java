@@ -0,0 +1,76 @@
+package edu.spp.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.jmh.Datasets;
+import edu.spp.ml.PassFailDataset;
+import edu.spp.ml.StudentColumns;
+import weka.core.Instances;
+
+// Turns synthetic raw columns into the pass/fail training set two ways and reports the time and the heap
+// each result keeps alive per row: a PassFailDataset (vectorized labels, columns shared with the raw
+// data), and Weka Instances with one DenseInstance per row, which is what training used to hold for the
+// whole file. Run with a heap big enough for the Instances, e.g. -Xmx4g for the default 10M rows.
+//
+// Usage: PreprocessBenchmark [rows] [runs]
+public final class PreprocessBenchmark {
+
+    private PreprocessBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        System.out.printf(Locale.US, "%,d rows, best of %d runs%n%n", rows, runs);
+        System.out.printf(Locale.US, "%-36s %10s %14s %12s%n", "result", "time", "retained", "bytes/row");
+
+        long best = Long.MAX_VALUE;
+        long bestLabel = Long.MAX_VALUE;
+        long retained = 0;
+        for (int r = 0; r < runs; r++) {
+            long before = usedAfterGc();
+            StudentColumns raw = Datasets.columns(rows, r);
+            long start = System.nanoTime();
+            PassFailDataset data = PassFailDataset.from(raw);
+            long labelled = System.nanoTime();
+            data.shuffle(new Random(42));
+            best = Math.min(best, System.nanoTime() - start);
+            bestLabel = Math.min(bestLabel, labelled - start);
+            raw = null;
+            retained = usedAfterGc() - before;
+            if (data.passCount() < 0) throw new AssertionError();
+        }
+        print("PassFailDataset (label + shuffle)", best, retained, rows);
+        System.out.printf(Locale.US, "%-36s %8.0fms%n", "  of which vectorized labels", bestLabel / 1e6);
+
+        best = Long.MAX_VALUE;
+        for (int r = 0; r < runs; r++) {
+            long before = usedAfterGc();
+            StudentColumns raw = Datasets.columns(rows, r);
+            long start = System.nanoTime();
+            PassFailDataset data = PassFailDataset.from(raw);
+            Instances instances = data.toInstances();
+            instances.randomize(new Random(42));
+            best = Math.min(best, System.nanoTime() - start);
+            raw = null;
+            data = null;
+            retained = usedAfterGc() - before;
+            if (instances.numInstances() != rows) throw new AssertionError();
+        }
+        print("Instances (DenseInstance per row)", best, retained, rows);
+    }
+
+    private static void print(String name, long nanos, long retained, int rows) {
+        System.out.printf(Locale.US, "%-36s %8.0fms %12.1fMB %12.1f%n",
+                name, nanos / 1e6, retained / 1048576.0, (double) retained / rows);
+    }
+
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,138 @@
+package edu.spp.bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.spp.ml.ModelIO;
+import edu.spp.ml.TrainModel;
+import edu.spp.predict.LatencyHistogram;
+import edu.spp.predict.ModelReloader;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+import edu.spp.predict.StudentInput;
+import weka.classifiers.Classifier;
+
+// Scoring threads call predict() in a closed loop while the model file in a scratch directory is
+// rewritten, alternating between the shipped model and a synthetic variant. Per-call latency is
+// split by whether a reload was in flight, so the two distributions can be compared directly.
+//
+// Usage: ReloadLatencyBench [reloads] [threads]
+public final class ReloadLatencyBench {
+
+    private static final int INPUTS = 4_096;
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long STEADY_MILLIS = 1_000;
+
+    private static volatile boolean reloading;
+    private static volatile boolean running = true;
+
+    private ReloadLatencyBench() {}
+
+    public static void main(String[] args) throws Exception {
+        int reloads = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        Classifier shipped = ModelIO.load(TrainModel.DEFAULT_MODEL_PATH);
+        Classifier variant = SyntheticModels.trainVariant();
+        File dir = Files.createTempDirectory("spp-reload").toFile();
+        File modelFile = new File(dir, TrainModel.DEFAULT_MODEL_PATH.getName());
+        ModelIO.save(shipped, modelFile);
+
+        Predictor predictor = Predictor.load(modelFile, PredictorOptions.defaults());
+        LinkedBlockingQueue<ModelReloader.ReloadEvent> events = new LinkedBlockingQueue<>();
+        ModelReloader reloader = ModelReloader.start(predictor, ModelReloader.DEFAULT_QUIET_PERIOD, events::add);
+
+        Random random = new Random(42);
+        StudentInput[] inputs = new StudentInput[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = new StudentInput(i, random.nextInt(401) / 10.0, 50.0 + random.nextInt(501) / 10.0, random.nextInt(101) / 10.0);
+        }
+
+        List<Worker> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Worker w = new Worker(predictor, inputs, t);
+            workers.add(w);
+            w.start();
+        }
+
+        Thread.sleep(WARMUP_MILLIS);
+        for (Worker w : workers) w.reset = true;
+
+        List<ModelReloader.ReloadEvent> published = new ArrayList<>();
+        for (int r = 0; r < reloads; r++) {
+            Thread.sleep(STEADY_MILLIS);
+            reloading = true;
+            ModelIO.save(r % 2 == 0 ? variant : shipped, modelFile);
+            ModelReloader.ReloadEvent event = events.poll(30, TimeUnit.SECONDS);
+            reloading = false;
+            if (event == null) throw new IllegalStateException("No reload observed within 30 s.");
+            published.add(event);
+        }
+        Thread.sleep(STEADY_MILLIS);
+
+        running = false;
+        LatencyHistogram steady = new LatencyHistogram();
+        LatencyHistogram during = new LatencyHistogram();
+        for (Worker w : workers) {
+            w.join();
+            steady.merge(w.steady);
+            during.merge(w.during);
+        }
+        reloader.close();
+
+        System.out.printf(Locale.US, "%d scoring threads, %d cores, %d reloads%n",
+                threads, Runtime.getRuntime().availableProcessors(), reloads);
+        for (ModelReloader.ReloadEvent e : published) System.out.println("- " + e.toHumanString());
+        System.out.println(reloader.stats().toHumanString());
+        System.out.println("steady         " + steady.snapshot().toHumanString());
+        System.out.println("during reload  " + during.snapshot().toHumanString());
+        System.out.println("final model version " + predictor.modelVersion());
+
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    private static final class Worker extends Thread {
+        final Predictor predictor;
+        final StudentInput[] inputs;
+        final Random random;
+        LatencyHistogram steady = new LatencyHistogram();
+        LatencyHistogram during = new LatencyHistogram();
+        volatile boolean reset;
+
+        Worker(Predictor predictor, StudentInput[] inputs, int seed) {
+            super("reload-bench-" + seed);
+            this.predictor = predictor;
+            this.inputs = inputs;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (reset) {
+                        steady = new LatencyHistogram();
+                        during = new LatencyHistogram();
+                        reset = false;
+                    }
+                    StudentInput in = inputs[random.nextInt(INPUTS)];
+                    boolean inReload = reloading;
+                    long t0 = System.nanoTime();
+                    predictor.predict(in).predictedLabel();
+                    long nanos = System.nanoTime() - t0;
+                    (inReload ? during : steady).record(nanos);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package edu.spp.bench;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import edu.spp.predict.Predictor;
+import edu.spp.predict.StudentInput;
+
+// Child process for ModelLoadBenchmark. Uses nothing but spp-runtime, so it can start without Weka on
+// the classpath. Loads a model, renders one explained prediction and prints a single line:
+//   <JVM uptime ms at first prediction> <loaded classes> <peak RSS KB, -1 if unknown>
+//
+// Usage: StartupProbe <model file>
+public final class StartupProbe {
+
+    private StartupProbe() {}
+
+    public static void main(String[] args) throws Exception {
+        Predictor predictor = Predictor.load(new File(args[0]), Predictor.Backend.COMPILED);
+        predictor.predict(new StudentInput(1, 12.0, 85.0, 6.0)).explanation();
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        long classes = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        System.out.println(uptime + " " + classes + " " + peakRssKb());
+    }
+
+    // Linux only: VmHWM is the high-water mark of the resident set.
+    private static long peakRssKb() {
+        try {
+            List<String> lines = Files.readAllLines(Path.of("/proc/self/status"));
+            for (String line : lines) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                }
+            }
+        } catch (Exception e) {
+            // not available on this platform
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.spp.bench;
+
+import java.util.Random;
+
+import edu.spp.ml.DataPreprocessor;
+import weka.classifiers.Classifier;
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.J48;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+// A second model for harnesses that swap or reload: same learner settings as TrainModel, trained on
+// synthetic rows with a stricter pass rule, so its tree differs from the shipped one.
+final class SyntheticModels {
+
+    private SyntheticModels() {}
+
+    static Classifier trainVariant() throws Exception {
+        Instances data = new Instances(DataPreprocessor.buildPredictionHeader(), 0);
+        Random random = new Random(7);
+        for (int i = 0; i < 4_000; i++) {
+            double h = random.nextInt(401) / 10.0;
+            double a = 50.0 + random.nextInt(501) / 10.0;
+            double p = random.nextInt(101) / 10.0;
+            boolean pass = h >= 12.0 && a >= 80.0 && p >= 4.0;
+            if (random.nextInt(20) == 0) pass = !pass;
+            data.add(new DenseInstance(1.0, new double[] {h, a, p, pass ? 1 : 0}));
+        }
+
+        J48 j48 = new J48();
+        j48.setConfidenceFactor(0.15f);
+        j48.setMinNumObj(10);
+        j48.setUseLaplace(true);
+
+        CostMatrix costs = new CostMatrix(2);
+        costs.setElement(0, 1, 5.0);
+        costs.setElement(1, 0, 1.0);
+
+        CostSensitiveClassifier model = new CostSensitiveClassifier();
+        model.setClassifier(j48);
+        model.setMinimizeExpectedCost(true);
+        model.setCostMatrix(costs);
+        model.buildClassifier(data);
+        return model;
+    }
+}
@@ -0,0 +1,43 @@
+package edu.spp.explain;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.jmh.Datasets;
+
+// J48TreeTextParser.parse on the printed form of a trained model, the text J48Explainer(String) takes.
+// It lives in this package because the parser is package-private.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TreeTextParseBenchmark {
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    private String treeText;
+
+    @Setup
+    public void setUp() throws Exception {
+        treeText = Datasets.model(rows).toString();
+    }
+
+    @Benchmark
+    public Object parse() {
+        return J48TreeTextParser.parse(treeText);
+    }
+}
@@ -0,0 +1,79 @@
+package edu.spp.jmh;
+
+import java.util.Random;
+
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.Hyperparameters;
+import edu.spp.ml.StudentColumns;
+import edu.spp.predict.StudentInput;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instances;
+
+// Inputs shared by the benchmarks and the edu.spp.bench harnesses. Exports are synthetic, with the
+// columns and value ranges of the real one; CsvIngestBenchmark --generate writes the same rows to a file,
+// so every run sees the same data without one on disk. REALISTIC is the size of the bundled dataset,
+// LARGE that of a multi-year district export; benchmarks take one of them as their "rows" parameter.
+public final class Datasets {
+
+    public static final String REALISTIC = "20000";
+    public static final String LARGE = "1000000";
+
+    private Datasets() {}
+
+    public interface RowSink<E extends Exception> {
+        void accept(long row, double study, double attendance, double participation, double score, char grade) throws E;
+    }
+
+    // The export generator: one row per call, rows counted from 0.
+    public static <E extends Exception> void generate(long rows, long seed, RowSink<E> sink) throws E {
+        Random random = new Random(seed);
+        for (long i = 0; i < rows; i++) {
+            double study = Math.round(random.nextDouble() * 400) / 10.0;
+            double attendance = Math.round((40 + random.nextDouble() * 60) * 10) / 10.0;
+            double participation = Math.round(random.nextDouble() * 100) / 10.0;
+            double score = Math.round(Math.min(100, 20 + study * 1.2 + attendance * 0.4 + random.nextGaussian() * 8) * 10) / 10.0;
+            char grade = score >= 85 ? 'A' : score >= 70 ? 'B' : score >= 55 ? 'C' : score >= 40 ? 'D' : 'F';
+            sink.accept(i, study, attendance, participation, score, grade);
+        }
+    }
+
+    public static StudentColumns columns(int rows) {
+        return columns(rows, 42);
+    }
+
+    public static StudentColumns columns(int rows, long seed) {
+        double[] study = new double[rows];
+        double[] attendance = new double[rows];
+        double[] participation = new double[rows];
+        double[] score = new double[rows];
+        byte[] grade = new byte[rows];
+        Datasets.<RuntimeException>generate(rows, seed, (i, s, a, p, total, letter) -> {
+            study[(int) i] = s;
+            attendance[(int) i] = a;
+            participation[(int) i] = p;
+            score[(int) i] = total;
+            grade[(int) i] = (byte) letter;
+        });
+        return new StudentColumns(rows, study, attendance, participation, score, grade);
+    }
+
+    public static Instances trainingData(int rows) {
+        return DataPreprocessor.buildPassFailTrainingData(columns(rows));
+    }
+
+    // What TrainModel would ship for an export of that size, with the default settings.
+    public static CostSensitiveClassifier model(int rows) throws Exception {
+        return Hyperparameters.DEFAULT.train(trainingData(rows));
+    }
+
+    // Values with one decimal, as the UI sliders and the CSV exports produce them.
+    public static StudentInput[] inputs(int n) {
+        Random random = new Random(7);
+        StudentInput[] inputs = new StudentInput[n];
+        for (int i = 0; i < n; i++) {
+            inputs[i] = new StudentInput(i, random.nextInt(401) / 10.0, 50.0 + random.nextInt(501) / 10.0,
+                    random.nextInt(101) / 10.0);
+        }
+        return inputs;
+    }
+}
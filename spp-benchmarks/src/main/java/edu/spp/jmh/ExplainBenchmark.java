@@ -0,0 +1,61 @@
+package edu.spp.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.explain.J48Explainer;
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.TreeCompiler;
+import edu.spp.predict.StudentInput;
+import edu.spp.predict.TreeModel;
+
+// J48Explainer.explain for the label the model actually predicts, as Predictor renders it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ExplainBenchmark {
+
+    private static final int INPUTS = 4096;
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    private J48Explainer explainer;
+    private StudentInput[] inputs;
+    private String[] labels;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        TreeModel model = TreeCompiler.export(Datasets.model(rows), DataPreprocessor.buildPredictionHeader());
+        explainer = J48Explainer.fromTree(model);
+        inputs = Datasets.inputs(INPUTS);
+        labels = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            StudentInput in = inputs[i];
+            double[] dist = model.distribution(in.weeklySelfStudyHours(), in.attendancePercentage(), in.classParticipation());
+            labels[i] = model.classLabels()[dist[1] > dist[0] ? 1 : 0];
+        }
+    }
+
+    @Benchmark
+    public J48Explainer.Explanation explain() {
+        int i = next;
+        next = (next + 1) & (INPUTS - 1);
+        return explainer.explain(inputs[i], labels[i]);
+    }
+}
@@ -0,0 +1,64 @@
+package edu.spp.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.ModelIO;
+import weka.classifiers.Classifier;
+import weka.classifiers.meta.CostSensitiveClassifier;
+
+// Reading a model back the way a reload does: ModelIO.load for the Java-serialized Weka model, and
+// ModelIO.read on the compact file written from the same classifier, for comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ModelIOBenchmark {
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    private File serialized;
+    private File compact;
+
+    @Setup
+    public void setUp() throws Exception {
+        CostSensitiveClassifier model = Datasets.model(rows);
+        serialized = File.createTempFile("spp-jmh-", ".model");
+        compact = File.createTempFile("spp-jmh-", ".sppm");
+        ModelIO.save(model, serialized);
+        ModelIO.saveCompact(model, DataPreprocessor.buildPredictionHeader(), compact);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serialized.delete();
+        compact.delete();
+    }
+
+    @Benchmark
+    public Classifier load() throws Exception {
+        return ModelIO.load(serialized);
+    }
+
+    @Benchmark
+    public ModelIO.ModelFile readCompact() throws Exception {
+        return ModelIO.read(compact);
+    }
+}
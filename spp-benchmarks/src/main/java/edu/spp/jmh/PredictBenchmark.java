@@ -0,0 +1,67 @@
+package edu.spp.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.ml.ModelIO;
+import edu.spp.predict.PredictionResult;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+import edu.spp.predict.StudentInput;
+
+// One Predictor.predict call per operation, on every backend, for models trained on each export size.
+// The inputs cycle through a fixed set larger than any tree, so the walk is not trained on one path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PredictBenchmark {
+
+    private static final int INPUTS = 4096;
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    @Param({"COMPILED", "BYTECODE", "WEKA"})
+    Predictor.Backend backend;
+
+    private File modelFile;
+    private Predictor predictor;
+    private StudentInput[] inputs;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        modelFile = File.createTempFile("spp-jmh-", ".model");
+        ModelIO.save(Datasets.model(rows), modelFile);
+        predictor = Predictor.load(modelFile, PredictorOptions.defaults().withBackend(backend));
+        inputs = Datasets.inputs(INPUTS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        modelFile.delete();
+    }
+
+    @Benchmark
+    public PredictionResult predict() throws Exception {
+        StudentInput input = inputs[next];
+        next = (next + 1) & (INPUTS - 1);
+        return predictor.predict(input);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.spp.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.ml.HistogramTree;
+import edu.spp.ml.Hyperparameters;
+import edu.spp.ml.PassFailDataset;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instances;
+
+// The training step of TrainModel with the default settings: Weka's J48 inside the cost-sensitive
+// wrapper, and HistogramTree (--histogram) on all cores. TrainModel itself also writes the model files,
+// so it is not run here. A training takes long enough to time one at a time (SingleShotTime).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TrainBenchmark {
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    private Instances instances;
+    private PassFailDataset dataset;
+
+    @Setup
+    public void setUp() {
+        instances = Datasets.trainingData(rows);
+        dataset = PassFailDataset.from(Datasets.columns(rows));
+    }
+
+    @Benchmark
+    public CostSensitiveClassifier j48() throws Exception {
+        return Hyperparameters.DEFAULT.train(instances);
+    }
+
+    @Benchmark
+    public HistogramTree.Result histogram() throws Exception {
+        return HistogramTree.train(dataset, 0, dataset.size(), Hyperparameters.DEFAULT,
+                Runtime.getRuntime().availableProcessors());
+    }
+}
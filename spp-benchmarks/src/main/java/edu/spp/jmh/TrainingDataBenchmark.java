@@ -0,0 +1,45 @@
+package edu.spp.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.spp.ml.DataPreprocessor;
+import edu.spp.ml.StudentColumns;
+import weka.core.Instances;
+
+// DataPreprocessor.buildPassFailTrainingData from columns already read: labelling plus building the
+// Weka Instances J48 trains on. Reading the CSV itself is CsvIngestBenchmark's subject.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TrainingDataBenchmark {
+
+    @Param({Datasets.REALISTIC, Datasets.LARGE})
+    int rows;
+
+    private StudentColumns columns;
+
+    @Setup
+    public void setUp() {
+        columns = Datasets.columns(rows);
+    }
+
+    @Benchmark
+    public Instances buildPassFailTrainingData() {
+        return DataPreprocessor.buildPassFailTrainingData(columns);
+    }
+}
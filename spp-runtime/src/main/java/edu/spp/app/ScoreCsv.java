@@ -0,0 +1,367 @@
+package edu.spp.app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.spp.predict.BatchPredictions;
+import edu.spp.predict.PredictionMetrics;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+import edu.spp.predict.StudentSchema;
+
+// Scores a CSV export row by row into a CSV of predictions. Columns are matched by name
+// (case-insensitively, in any order). Fields are split on every comma, so quoted fields may not contain
+// one; ids that need it are quoted on output.
+public final class ScoreCsv {
+
+    static final int DEFAULT_CHUNK_ROWS = 65_536;
+    // An explanation is about 1.8 KB on the heap, so with --explain a 65,536-row chunk would hold over
+    // 100 MB of them; this keeps the whole pipeline to a few tens of MB.
+    static final int DEFAULT_EXPLAIN_CHUNK_ROWS = 2_048;
+    static final int QUEUE_DEPTH = 4;
+    static final long PROGRESS_INTERVAL_NANOS = 2_000_000_000L;
+
+    private static final Chunk END = new Chunk(0);
+
+    private ScoreCsv() {}
+
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        Path output = null;
+        File modelPath = Predictor.DEFAULT_MODEL_PATH;
+        boolean explain = false;
+        int chunkRows = 0;
+        PredictionMetrics metrics = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--explain" -> explain = true;
+                case "--model" -> modelPath = new File(requireValue(args, ++i, "--model"));
+                case "--chunk" -> chunkRows = Integer.parseInt(requireValue(args, ++i, "--chunk"));
+                case "--metrics" -> metrics = new PredictionMetrics();
+                default -> {
+                    if (input == null) input = Path.of(args[i]);
+                    else if (output == null) output = Path.of(args[i]);
+                    else throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+        }
+        if (chunkRows == 0) chunkRows = explain ? DEFAULT_EXPLAIN_CHUNK_ROWS : DEFAULT_CHUNK_ROWS;
+        if (input == null || output == null || chunkRows <= 0) {
+            System.err.println("Usage: ScoreCsv <input.csv> <output.csv> [--explain] [--model file] [--chunk rows] [--metrics]");
+            System.exit(2);
+            return;
+        }
+
+        Predictor predictor = Predictor.load(modelPath, PredictorOptions.defaults().withMetrics(metrics));
+        if (metrics != null) metrics.register("score-csv");
+        ScoreReport report = score(predictor, input, output, explain, chunkRows);
+        System.out.println(report.toHumanString());
+        if (metrics != null) System.out.println(metrics.toHumanString());
+    }
+
+    private static String requireValue(String[] args, int i, String flag) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+        return args[i];
+    }
+
+    // Reader, scorer and writer run as a three-stage pipeline over bounded queues, so at most
+    // 2 * QUEUE_DEPTH + 3 chunks are alive regardless of the input size. A failure in any stage stops
+    // the reader, so the error is reported without reading the rest of the file.
+    public static ScoreReport score(Predictor predictor, Path input, Path output, boolean explain, int chunkRows)
+            throws Exception {
+        BlockingQueue<Chunk> parsed = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        BlockingQueue<Chunk> scored = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                readChunks(in, chunkRows, parsed);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                putQuietly(parsed, END);
+            }
+        }, "score-csv-reader");
+
+        Thread writer = new Thread(() -> {
+            try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                writeChunks(out, explain, scored);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                // no point reading the rest of the input
+                reader.interrupt();
+                drain(scored);
+            }
+        }, "score-csv-writer");
+
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        long start = System.nanoTime();
+        reader.start();
+        writer.start();
+
+        long rows = 0;
+        long lastReport = start;
+        boolean readAll = false;
+        try {
+            while (true) {
+                Chunk chunk = parsed.take();
+                if (chunk == END) {
+                    readAll = true;
+                    break;
+                }
+                if (failure.get() != null) break;
+                chunk.predictions = predictor.predictBatch(
+                        chunk.studyHours, chunk.attendance, chunk.participation, explain);
+                scored.put(chunk);
+                rows += chunk.size;
+
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    System.err.printf(Locale.US, "Scored %,d rows (%,.0f rows/s)%n", rows, rowsPerSecond(rows, now - start));
+                    lastReport = now;
+                }
+            }
+        } finally {
+            // On any way out before the end of the input (a failed stage, or an Error while scoring) the
+            // reader may be blocked on a full queue, so stop it rather than wait for it.
+            if (!readAll) {
+                reader.interrupt();
+                while (reader.isAlive()) {
+                    parsed.poll(10, TimeUnit.MILLISECONDS);
+                }
+            }
+            scored.put(END);
+            writer.join();
+            reader.join();
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof Exception e) throw e;
+        if (t != null) throw new IllegalStateException("CSV scoring failed.", t);
+
+        long elapsed = System.nanoTime() - start;
+        return new ScoreReport(rows, elapsed / 1_000_000L, rowsPerSecond(rows, elapsed), output.toString());
+    }
+
+    private static double rowsPerSecond(long rows, long nanos) {
+        return nanos <= 0 ? 0.0 : rows * 1e9 / nanos;
+    }
+
+    private static void readChunks(BufferedReader in, int chunkRows, BlockingQueue<Chunk> parsed)
+            throws IOException, InterruptedException {
+        String headerLine = in.readLine();
+        if (headerLine == null) {
+            throw new IllegalStateException("Input CSV is empty.");
+        }
+        String[] columns = splitCsv(headerLine, 0);
+        int idxId = indexOf(columns, "student_id");
+        int idxStudy = requireColumn(columns, StudentSchema.ATTR_STUDY_HOURS);
+        int idxAttendance = requireColumn(columns, StudentSchema.ATTR_ATTENDANCE);
+        int idxParticipation = requireColumn(columns, StudentSchema.ATTR_PARTICIPATION);
+        int width = columns.length;
+
+        Chunk chunk = new Chunk(chunkRows);
+        long lineNo = 1;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            String[] f = splitCsv(line, width);
+            int row = chunk.size++;
+            chunk.ids[row] = idxId >= 0 && idxId < f.length ? f[idxId] : Long.toString(lineNo - 1);
+            chunk.studyHours[row] = parseNumber(f, idxStudy, lineNo);
+            chunk.attendance[row] = parseNumber(f, idxAttendance, lineNo);
+            chunk.participation[row] = parseNumber(f, idxParticipation, lineNo);
+            if (chunk.size == chunkRows) {
+                parsed.put(chunk);
+                chunk = new Chunk(chunkRows);
+            }
+        }
+        if (chunk.size > 0) {
+            parsed.put(chunk.trimmed());
+        }
+    }
+
+    private static void writeChunks(Writer out, boolean explain, BlockingQueue<Chunk> scored)
+            throws IOException, InterruptedException {
+        out.write(explain ? "student_id,predicted_label,confidence,explanation\n" : "student_id,predicted_label,confidence\n");
+        StringBuilder sb = new StringBuilder(256);
+        while (true) {
+            Chunk chunk = scored.take();
+            if (chunk == END) break;
+            BatchPredictions p = chunk.predictions;
+            for (int i = 0; i < chunk.size; i++) {
+                sb.setLength(0);
+                appendField(sb, chunk.ids[i]).append(',').append(p.label(i)).append(',');
+                appendFixed4(sb, p.confidence(i));
+                if (explain) {
+                    sb.append(',');
+                    appendQuoted(sb, p.explanation(i));
+                }
+                sb.append('\n');
+                out.append(sb);
+            }
+        }
+    }
+
+    private static void appendFixed4(StringBuilder sb, double v) {
+        long scaled = Math.round(v * 10_000.0);
+        sb.append(scaled / 10_000).append('.');
+        long frac = scaled % 10_000;
+        if (frac < 1000) sb.append('0');
+        if (frac < 100) sb.append('0');
+        if (frac < 10) sb.append('0');
+        sb.append(frac);
+    }
+
+    private static StringBuilder appendField(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                appendQuoted(sb, s);
+                return sb;
+            }
+        }
+        return sb.append(s);
+    }
+
+    private static void appendQuoted(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '"') sb.append('"');
+            sb.append(ch);
+        }
+        sb.append('"');
+    }
+
+    private static String[] splitCsv(String line, int expected) {
+        String[] out = new String[Math.max(expected, 8)];
+        int n = 0;
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == ',') {
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = unquote(line.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static String unquote(String s) {
+        if (s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"') {
+            return s.substring(1, s.length() - 1).trim();
+        }
+        return s;
+    }
+
+    // Empty cells and Weka's "?" marker are read as missing and scored through the Weka fallback;
+    // anything else that is not a number means the file is corrupt.
+    private static double parseNumber(String[] fields, int idx, long lineNo) {
+        if (idx >= fields.length) return Double.NaN;
+        String s = fields[idx];
+        if (s.isEmpty() || s.equals("?")) return Double.NaN;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Not a number on line " + lineNo + ": \"" + s + "\"", e);
+        }
+    }
+
+    private static int indexOf(String[] columns, String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    private static int requireColumn(String[] columns, String name) {
+        int idx = indexOf(columns, name);
+        if (idx < 0) throw new IllegalStateException("Input CSV is missing column: " + name);
+        return idx;
+    }
+
+    private static void putQuietly(BlockingQueue<Chunk> queue, Chunk chunk) {
+        try {
+            queue.put(chunk);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(BlockingQueue<Chunk> queue) {
+        try {
+            while (queue.take() != END) {
+                // keep the scorer unblocked after a write failure
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Chunk {
+        final String[] ids;
+        final double[] studyHours;
+        final double[] attendance;
+        final double[] participation;
+        int size;
+        BatchPredictions predictions;
+
+        Chunk(int capacity) {
+            this.ids = new String[capacity];
+            this.studyHours = new double[capacity];
+            this.attendance = new double[capacity];
+            this.participation = new double[capacity];
+        }
+
+        private Chunk(String[] ids, double[] studyHours, double[] attendance, double[] participation) {
+            this.ids = ids;
+            this.studyHours = studyHours;
+            this.attendance = attendance;
+            this.participation = participation;
+            this.size = ids.length;
+        }
+
+        Chunk trimmed() {
+            if (size == ids.length) return this;
+            return new Chunk(
+                    Arrays.copyOf(ids, size),
+                    Arrays.copyOf(studyHours, size),
+                    Arrays.copyOf(attendance, size),
+                    Arrays.copyOf(participation, size));
+        }
+    }
+
+    public record ScoreReport(long rows, long elapsedMillis, double rowsPerSecond, String outputPath) {
+        public String toHumanString() {
+            return String.format(
+                    Locale.US,
+                    """
+                    Scoring completed.
+                    - Rows: %,d
+                    - Elapsed: %,d ms (%,.0f rows/s)
+                    - Output written to: %s
+                    """,
+                    rows, elapsedMillis, rowsPerSecond, outputPath
+            );
+        }
+    }
+}
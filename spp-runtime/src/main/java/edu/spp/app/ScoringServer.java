@@ -0,0 +1,335 @@
+package edu.spp.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import edu.spp.predict.BatchPredictions;
+import edu.spp.predict.ModelReloader;
+import edu.spp.predict.PredictionMetrics;
+import edu.spp.predict.PredictionResult;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
+import edu.spp.predict.StudentInput;
+
+// Local JSON scoring endpoint on the JDK's built-in HTTP server:
+//   POST /predict        {"studentId":1,"weeklySelfStudyHours":12,"attendancePercentage":85,"classParticipation":6}
+//   POST /predict/batch  {"students":[...]} or a bare array of the same objects
+//   GET  /health
+// Add ?explain=false to either predict endpoint to leave out the explanation text.
+public final class ScoringServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8085;
+    static final int BACKLOG = 1_024;
+    static final int MAX_BODY_BYTES = 16 << 20;
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY, keep-alive clients
+        // wait out Nagle plus delayed ACK (~40 ms) on every small response. Read once, at first use.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Predictor predictor;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private ScoringServer(Predictor predictor, HttpServer server, ExecutorService executor) {
+        this.predictor = predictor;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        File modelPath = Predictor.DEFAULT_MODEL_PATH;
+        String threads = "auto";
+        boolean reload = true;
+        PredictionMetrics metrics = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host" -> host = requireValue(args, ++i, "--host");
+                case "--port" -> port = Integer.parseInt(requireValue(args, ++i, "--port"));
+                case "--model" -> modelPath = new File(requireValue(args, ++i, "--model"));
+                case "--threads" -> threads = requireValue(args, ++i, "--threads");
+                case "--no-reload" -> reload = false;
+                case "--metrics" -> metrics = new PredictionMetrics();
+                default -> {
+                    System.err.println("Usage: ScoringServer [--host addr] [--port n] [--model file] "
+                            + "[--threads auto|virtual|n] [--no-reload] [--metrics]");
+                    System.exit(2);
+                    return;
+                }
+            }
+        }
+
+        Predictor predictor = Predictor.load(modelPath,
+                PredictorOptions.defaults().withSliderLookupTable(true).withCache(4_096).withMetrics(metrics));
+        if (metrics != null) {
+            System.out.println("Prediction metrics published over JMX as " + metrics.register("scoring-server"));
+        }
+        ModelReloader reloader = reload
+                ? ModelReloader.start(predictor, ModelReloader.DEFAULT_QUIET_PERIOD, e -> System.out.println(e.toHumanString()))
+                : null;
+        ExecutorService executor = newExecutor(threads);
+        ScoringServer server = start(predictor, new InetSocketAddress(host, port), executor);
+        System.out.printf("Scoring server listening on http://%s:%d (%s executor)%n", host, server.port(), describe(threads));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            try {
+                if (reloader != null) reloader.close();
+            } catch (IOException ignored) {
+            }
+        }, "scoring-server-shutdown"));
+    }
+
+    private static String requireValue(String[] args, int i, String flag) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+        return args[i];
+    }
+
+    public static ScoringServer start(Predictor predictor, InetSocketAddress address, ExecutorService executor)
+            throws IOException {
+        HttpServer server = HttpServer.create(address, BACKLOG);
+        ScoringServer scoring = new ScoringServer(predictor, server, executor);
+        server.createContext("/predict", scoring.handler(scoring::predictOne));
+        server.createContext("/predict/batch", scoring.handler(scoring::predictMany));
+        server.createContext("/health", scoring.handler(scoring::health));
+        server.createContext("/", scoring.handler(ScoringServer::notFound));
+        server.setExecutor(executor);
+        server.start();
+        return scoring;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // "virtual" needs a JDK with virtual threads (21+); "auto" uses them when present and otherwise a
+    // fixed pool, which suits this workload anyway since every request is short and CPU-bound.
+    public static ExecutorService newExecutor(String spec) {
+        return switch (spec) {
+            case "virtual" -> {
+                ExecutorService virtual = virtualThreadExecutor();
+                if (virtual == null) throw new IllegalStateException("Virtual threads need JDK 21 or newer.");
+                yield virtual;
+            }
+            case "auto" -> {
+                ExecutorService virtual = virtualThreadExecutor();
+                yield virtual != null ? virtual : fixedExecutor(defaultPoolSize());
+            }
+            default -> fixedExecutor(Integer.parseInt(spec));
+        };
+    }
+
+    private static String describe(String spec) {
+        if (spec.equals("auto")) return hasVirtualThreads() ? "virtual-thread" : defaultPoolSize() + "-thread";
+        return spec.equals("virtual") ? "virtual-thread" : spec + "-thread";
+    }
+
+    private static int defaultPoolSize() {
+        return Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService fixedExecutor(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> new Thread(r, "scoring-http-" + counter.incrementAndGet());
+        return Executors.newFixedThreadPool(threads, factory);
+    }
+
+    private HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                Response response = path.equals(exchange.getHttpContext().getPath())
+                        ? endpoint.handle(exchange)
+                        : notFound(exchange);
+                send(exchange, response.status(), response.json());
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (Exception e) {
+                send(exchange, 500, error(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private Response predictOne(HttpExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals("POST")) return methodNotAllowed("POST");
+        Object body = Json.parse(readBody(exchange));
+        if (!(body instanceof Map<?, ?> fields)) throw new IllegalArgumentException("Expected a JSON object.");
+        boolean explain = explainRequested(exchange);
+
+        PredictionResult result = predictor.predict(toInput(fields, 0));
+        StringBuilder sb = new StringBuilder(explain ? 1_024 : 96);
+        appendPrediction(sb, result.input().studentId(), result.predictedLabel(), result.confidence(),
+                explain ? result.explanation() : null);
+        return new Response(200, sb.toString());
+    }
+
+    private Response predictMany(HttpExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals("POST")) return methodNotAllowed("POST");
+        Object body = Json.parse(readBody(exchange));
+        if (body instanceof Map<?, ?> wrapper) body = wrapper.get("students");
+        if (!(body instanceof List<?> rows)) {
+            throw new IllegalArgumentException("Expected an array of students or {\"students\": [...]}.");
+        }
+        boolean explain = explainRequested(exchange);
+
+        List<StudentInput> inputs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (!(rows.get(i) instanceof Map<?, ?> fields)) {
+                throw new IllegalArgumentException("students[" + i + "] is not a JSON object.");
+            }
+            inputs.add(toInput(fields, i));
+        }
+
+        BatchPredictions predictions = predictor.predictBatch(inputs, explain);
+        StringBuilder sb = new StringBuilder(16 + inputs.size() * (explain ? 1_024 : 80));
+        sb.append("{\"predictions\":[");
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendPrediction(sb, inputs.get(i).studentId(), predictions.label(i), predictions.confidence(i),
+                    explain ? predictions.explanation(i) : null);
+        }
+        sb.append("]}");
+        return new Response(200, sb.toString());
+    }
+
+    private Response health(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) return methodNotAllowed("GET");
+        StringBuilder sb = new StringBuilder("{\"status\":\"ok\",\"modelVersion\":")
+                .append(predictor.modelVersion())
+                .append(",\"backend\":");
+        Json.appendString(sb, predictor.backend().name()).append('}');
+        return new Response(200, sb.toString());
+    }
+
+    // Missing or null features are scored as missing values, like empty cells in ScoreCsv.
+    private static StudentInput toInput(Map<?, ?> fields, int defaultId) {
+        Object id = fields.get("studentId");
+        int studentId;
+        if (id == null) {
+            studentId = defaultId;
+        } else if (id instanceof Double d && d == Math.rint(d) && Math.abs(d) <= Integer.MAX_VALUE) {
+            studentId = d.intValue();
+        } else {
+            throw new IllegalArgumentException("studentId must be an integer: " + id);
+        }
+        return new StudentInput(
+                studentId,
+                feature(fields, "weeklySelfStudyHours"),
+                feature(fields, "attendancePercentage"),
+                feature(fields, "classParticipation"));
+    }
+
+    private static double feature(Map<?, ?> fields, String name) {
+        Object v = fields.get(name);
+        if (v == null) return Double.NaN;
+        if (v instanceof Double d) return d;
+        throw new IllegalArgumentException(name + " must be a number: " + v);
+    }
+
+    private static boolean explainRequested(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return true;
+        for (String param : query.split("&")) {
+            if (param.equals("explain=false") || param.equals("explain=0")) return false;
+        }
+        return true;
+    }
+
+    private static void appendPrediction(StringBuilder sb, int studentId, String label, double confidence, String explanation) {
+        sb.append("{\"studentId\":").append(studentId).append(",\"label\":");
+        Json.appendString(sb, label).append(",\"confidence\":").append(confidence);
+        if (explanation != null) {
+            sb.append(",\"explanation\":");
+            Json.appendString(sb, explanation);
+        }
+        sb.append('}');
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body exceeds " + MAX_BODY_BYTES + " bytes.");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Response notFound(HttpExchange exchange) {
+        return new Response(404, error("Not found: " + exchange.getRequestURI().getPath()));
+    }
+
+    private static Response methodNotAllowed(String allowed) {
+        return new Response(405, error("Use " + allowed + " for this endpoint."));
+    }
+
+    private static String error(String message) {
+        return Json.appendString(new StringBuilder("{\"error\":"), String.valueOf(message)).append('}').toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+
+        Response handle(HttpExchange exchange) throws Exception;
+    }
+
+    private record Response(int status, String json) {
+    }
+}
@@ -11,6 +11,9 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -35,7 +38,9 @@ import javax.swing.WindowConstants;
 import javax.swing.border.EmptyBorder;
 
 import edu.spp.predict.PredictionResult;
+import edu.spp.predict.ModelReloader;
 import edu.spp.predict.Predictor;
+import edu.spp.predict.PredictorOptions;
 import edu.spp.predict.StudentInput;
 
 public final class SwingApp {
@@ -59,6 +64,8 @@ public final class SwingApp {
     private JButton clearButton;
 
     private Predictor predictor;
+    private volatile boolean reloadRequested;
+    private ModelReloader reloader;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
@@ -70,6 +77,12 @@ public final class SwingApp {
     private void start() {
         frameRef = new JFrame("Student Performance Prediction System (Explainable ML)");
         frameRef.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        frameRef.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                stopReloader();
+            }
+        });
         frameRef.setLayout(new BorderLayout());
 
         rootPanel = new JPanel(new BorderLayout(16, 16));
@@ -205,7 +218,7 @@ public final class SwingApp {
         clearButton.addActionListener(e -> {
             explanationArea.setText("");
             setBadgeNeutral();
-            predictor = null;
+            reloadRequested = true;
         });
 
         panel.add(predictButton);
@@ -261,13 +274,33 @@ public final class SwingApp {
         return new StudentInput(id, study, att, part);
     }
 
-    private Predictor getPredictor() throws Exception {
+    // Called from background workers. "Clear" asks for the model file to be read again; the swap is
+    // atomic, so a prediction still running on the old model is unaffected.
+    private synchronized Predictor getPredictor() throws Exception {
         if (predictor == null) {
-            predictor = Predictor.loadDefault();
+            predictor = Predictor.loadDefault(PredictorOptions.defaults().withSliderLookupTable(true).withCache(4_096));
+            reloader = ModelReloader.start(predictor, ModelReloader.DEFAULT_QUIET_PERIOD, this::showReload);
+        } else if (reloadRequested) {
+            predictor.reload();
         }
+        reloadRequested = false;
         return predictor;
     }
 
+    // Reloads happen on the watcher thread; the outcome replaces the subtitle until the next one.
+    private void showReload(ModelReloader.ReloadEvent event) {
+        SwingUtilities.invokeLater(() -> subtitleLabel.setText(event.toHumanString()));
+    }
+
+    private synchronized void stopReloader() {
+        if (reloader == null) return;
+        try {
+            reloader.close();
+        } catch (IOException ignored) {
+        }
+        reloader = null;
+    }
+
     private void showResult(PredictionResult result) {
         SwingUtilities.invokeLater(() -> {
             explanationArea.setText(result.explanation());
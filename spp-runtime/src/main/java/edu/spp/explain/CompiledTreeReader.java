@@ -0,0 +1,47 @@
+package edu.spp.explain;
+
+import edu.spp.explain.J48Explainer.Condition;
+import edu.spp.explain.J48Explainer.DecisionNode;
+import edu.spp.explain.J48Explainer.Operator;
+import edu.spp.predict.CompiledTree;
+import edu.spp.predict.TreeModel;
+
+// Same tree shape as ClassifierTreeReader produces, read from a model loaded without Weka.
+final class CompiledTreeReader {
+
+    private CompiledTreeReader() {}
+
+    static DecisionNode read(TreeModel model) {
+        DecisionNode root = new DecisionNode(null, null);
+        CompiledTree tree = model.tree();
+        if (tree.root() < 0) {
+            return root;
+        }
+        addChildren(root, tree.root(), model);
+        return root;
+    }
+
+    private static void addChildren(DecisionNode parent, int node, TreeModel model) {
+        CompiledTree tree = model.tree();
+        String attribute = model.featureName(tree.feature(node));
+        double splitPoint = tree.threshold(node);
+        addChild(parent, tree.left(node), new Condition(attribute, Operator.LESS_OR_EQUAL, splitPoint), model);
+        addChild(parent, tree.right(node), new Condition(attribute, Operator.GREATER, splitPoint), model);
+    }
+
+    private static void addChild(DecisionNode parent, int child, Condition condition, TreeModel model) {
+        if (child < 0) {
+            // the majority class before the cost rule, as the Weka tree labels its leaves
+            double[] probs = model.leafProbability(~child);
+            int cls = 0;
+            for (int c = 1; c < probs.length; c++) {
+                if (probs[c] > probs[cls]) cls = c;
+            }
+            parent.children.add(new DecisionNode(condition, model.classLabels()[cls]));
+            return;
+        }
+        DecisionNode node = new DecisionNode(condition, null);
+        parent.children.add(node);
+        addChildren(node, child, model);
+    }
+}
@@ -0,0 +1,37 @@
+package edu.spp.explain;
+
+import java.util.Locale;
+
+// Appends the same text as String.format(Locale.US, "%.Nf", v) without going through Formatter.
+// Formatter rounds the shortest decimal form half-up, so the fast path is only taken when that form
+// already has at most N decimals (which covers the usual one-decimal inputs); other values fall back.
+public final class FixedDecimal {
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1_000L, 10_000L};
+    private static final String[] FORMATS = {"%.0f", "%.1f", "%.2f", "%.3f", "%.4f"};
+    private static final double FAST_PATH_LIMIT = 1e12;
+
+    private FixedDecimal() {}
+
+    public static StringBuilder append(StringBuilder sb, double v, int decimals) {
+        if (decimals < 0 || decimals >= POW10.length) {
+            throw new IllegalArgumentException("Unsupported number of decimals: " + decimals);
+        }
+        if ((v > 0.0 && v < FAST_PATH_LIMIT) || Double.doubleToRawLongBits(v) == 0L) {
+            long scale = POW10[decimals];
+            double scaled = Math.rint(v * scale);
+            if (scaled / scale == v) {
+                long units = (long) scaled;
+                sb.append(units / scale);
+                if (decimals > 0) {
+                    sb.append('.');
+                    long frac = units % scale;
+                    for (long p = scale / 10; p > frac && p > 1; p /= 10) sb.append('0');
+                    sb.append(frac);
+                }
+                return sb;
+            }
+        }
+        return sb.append(String.format(Locale.US, FORMATS[decimals], v));
+    }
+}
@@ -0,0 +1,382 @@
+package edu.spp.explain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.spp.predict.StudentInput;
+import edu.spp.predict.StudentSchema;
+import edu.spp.predict.TreeModel;
+
+public final class J48Explainer {
+
+    private static final int STUDY_HOURS = 0;
+    private static final int ATTENDANCE = 1;
+    private static final int PARTICIPATION = 2;
+
+    private static final String NO_PATH_TEXT =
+            "No rule path could be extracted from the tree text, so a simplified summary is shown.\n";
+    private static final String PATH_HEADER = "Decision path (tree conditions that matched this student):\n";
+
+    // Binary node layout: child references >= 0 are inner nodes, negative ones are ~leafId. A leaf is
+    // any place the walk ends: a real tree leaf, or a node whose split cannot be evaluated.
+    private final int root;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final Condition[] leftCondition;
+    private final Condition[] rightCondition;
+
+    // Everything in the explanation that only depends on the leaf, rendered once at load time.
+    private final LeafTemplate[] leaves;
+
+    public J48Explainer(String j48ToString) {
+        this(J48TreeTextParser.parse(j48ToString));
+    }
+
+    private J48Explainer(DecisionNode tree) {
+        Flattener f = new Flattener();
+        this.root = f.add(tree);
+        this.feature = Arrays.copyOf(f.feature, f.size);
+        this.threshold = Arrays.copyOf(f.threshold, f.size);
+        this.left = Arrays.copyOf(f.left, f.size);
+        this.right = Arrays.copyOf(f.right, f.size);
+        this.leftCondition = Arrays.copyOf(f.leftCondition, f.size);
+        this.rightCondition = Arrays.copyOf(f.rightCondition, f.size);
+        this.leaves = f.leaves.toArray(new LeafTemplate[0]);
+    }
+
+    // Conditions carry the exact split points the model scores with; the text constructor is for
+    // trees that only exist in printed form.
+    public static J48Explainer fromTree(TreeModel model) {
+        return new J48Explainer(CompiledTreeReader.read(model));
+    }
+
+    public Explanation explain(StudentInput input, String predictedLabel) {
+        return explain(input, predictedLabel, trace(input));
+    }
+
+    // The two halves of explain(): trace() walks the tree, explain(input, label, trace) fills in the text.
+    public Trace trace(StudentInput input) {
+        double h = input.weeklySelfStudyHours();
+        double a = input.attendancePercentage();
+        double p = input.classParticipation();
+        int end = walk(h, a, p);
+        return end < 0 ? new Trace(leaves[~end], leaves[~end].path) : new Trace(null, partialPath(end, h, a, p));
+    }
+
+    public Explanation explain(StudentInput input, String predictedLabel, Trace trace) {
+        StringBuilder english = new StringBuilder(768);
+        appendHeadline(english, predictedLabel);
+        if (trace.leaf != null) {
+            trace.leaf.appendPath(english, input);
+        } else {
+            appendPath(english, trace.path, input);
+        }
+        appendInputsAndRecommendations(english, input);
+        return new Explanation(english.toString(), trace.path);
+    }
+
+    public List<Condition> decisionPath(StudentInput input) {
+        return trace(input).path;
+    }
+
+    public int numLeaves() {
+        return leaves.length;
+    }
+
+    // Returns ~leafId, or the inner node where a missing value stopped the walk.
+    private int walk(double h, double a, double p) {
+        int node = root;
+        while (node >= 0) {
+            double v = value(feature[node], h, a, p);
+            if (Double.isNaN(v)) return node;
+            node = v <= threshold[node] ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    private List<Condition> partialPath(int stop, double h, double a, double p) {
+        List<Condition> path = new ArrayList<>();
+        int node = root;
+        while (node != stop) {
+            if (value(feature[node], h, a, p) <= threshold[node]) {
+                path.add(leftCondition[node]);
+                node = left[node];
+            } else {
+                path.add(rightCondition[node]);
+                node = right[node];
+            }
+        }
+        return path;
+    }
+
+    private static double value(int feature, double studyHours, double attendance, double participation) {
+        return switch (feature) {
+            case STUDY_HOURS -> studyHours;
+            case ATTENDANCE -> attendance;
+            case PARTICIPATION -> participation;
+            default -> Double.NaN;
+        };
+    }
+
+    private static double value(int feature, StudentInput input) {
+        return value(feature, input.weeklySelfStudyHours(), input.attendancePercentage(), input.classParticipation());
+    }
+
+    private static int featureOf(String attributeName) {
+        return switch (attributeName) {
+            case StudentSchema.ATTR_STUDY_HOURS -> STUDY_HOURS;
+            case StudentSchema.ATTR_ATTENDANCE -> ATTENDANCE;
+            case StudentSchema.ATTR_PARTICIPATION -> PARTICIPATION;
+            default -> -1;
+        };
+    }
+
+    private static void appendHeadline(StringBuilder sb, String predictedLabel) {
+        sb.append("The student is predicted to ")
+                .append(predictedLabel)
+                .append(" based on the decision tree rules.\n\n");
+    }
+
+    private static void appendPath(StringBuilder sb, List<Condition> path, StudentInput input) {
+        if (path.isEmpty()) {
+            sb.append(NO_PATH_TEXT);
+            return;
+        }
+        sb.append(PATH_HEADER);
+        for (int i = 0; i < path.size(); i++) {
+            Condition c = path.get(i);
+            sb.append(stepPrefix(i, c));
+            FixedDecimal.append(sb, value(featureOf(c.attributeName), input), 2);
+            sb.append(stepSuffix(c));
+        }
+    }
+
+    private static String stepPrefix(int step, Condition c) {
+        return (step + 1) + ") " + displayName(c) + " is ";
+    }
+
+    private static String stepSuffix(Condition c) {
+        StringBuilder sb = new StringBuilder(" and it satisfies: ")
+                .append(displayName(c)).append(' ')
+                .append(c.operator.symbol()).append(' ');
+        FixedDecimal.append(sb, c.threshold, 2);
+        return sb.append(units(c)).append('\n').toString();
+    }
+
+    private static String displayName(Condition c) {
+        return switch (c.attributeName) {
+            case StudentSchema.ATTR_STUDY_HOURS -> "weekly self-study hours";
+            case StudentSchema.ATTR_ATTENDANCE -> "attendance percentage";
+            case StudentSchema.ATTR_PARTICIPATION -> "class participation";
+            default -> c.attributeName;
+        };
+    }
+
+    private static String units(Condition c) {
+        return switch (c.attributeName) {
+            case StudentSchema.ATTR_STUDY_HOURS -> " hours";
+            case StudentSchema.ATTR_ATTENDANCE -> "%";
+            case StudentSchema.ATTR_PARTICIPATION -> " (0–10)";
+            default -> "";
+        };
+    }
+
+    private static void appendInputsAndRecommendations(StringBuilder sb, StudentInput input) {
+        sb.append("\nInput values:\n- Weekly self-study hours: ");
+        FixedDecimal.append(sb, input.weeklySelfStudyHours(), 1);
+        sb.append("\n- Attendance percentage: ");
+        FixedDecimal.append(sb, input.attendancePercentage(), 1);
+        sb.append("%\n- Class participation: ");
+        FixedDecimal.append(sb, input.classParticipation(), 1);
+        sb.append("/10\n");
+
+        sb.append("\nSimple recommendations:\n");
+        appendRecommendations(sb, input);
+    }
+
+    private static void appendRecommendations(StringBuilder sb, StudentInput input) {
+        if (input.weeklySelfStudyHours() < 10)
+            sb.append("- Increase study hours (target: 15–20 hours/week).\n");
+        else if (input.weeklySelfStudyHours() < 15)
+            sb.append("- Consider adding 2–5 more study hours per week.\n");
+        else
+            sb.append("- Keep the current study routine.\n");
+
+        if (input.attendancePercentage() < 70)
+            sb.append("- Attendance is low; try to attend at least 80% of classes.\n");
+        else if (input.attendancePercentage() < 80)
+            sb.append("- Improve attendance to strengthen understanding.\n");
+        else
+            sb.append("- Maintain good attendance.\n");
+
+        if (input.classParticipation() < 3)
+            sb.append("- Participation is low; ask/answer at least 1 question per class.\n");
+        else if (input.classParticipation() < 5)
+            sb.append("- Participate more in discussions to reinforce learning.\n");
+        else
+            sb.append("- Keep engaging in class.\n");
+    }
+
+    public record Explanation(String englishText, List<Condition> path) {
+    }
+
+    // Where the walk for one input ended: a leaf, whose text was prepared at load time, or the node a
+    // missing value stopped it at (leaf is null).
+    public static final class Trace {
+        private final LeafTemplate leaf;
+        private final List<Condition> path;
+
+        private Trace(LeafTemplate leaf, List<Condition> path) {
+            this.leaf = leaf;
+            this.path = path;
+        }
+
+        public List<Condition> path() {
+            return path;
+        }
+    }
+
+    static final class DecisionNode {
+        final Condition condition; 
+        final String label; 
+        final List<DecisionNode> children = new ArrayList<>();
+
+        DecisionNode(Condition condition, String label) {
+            this.condition = condition;
+            this.label = label;
+        }
+    }
+
+    public enum Operator {
+        LESS_OR_EQUAL("<="),
+        GREATER(">");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    public static final class Condition {
+        public final String attributeName;
+        public final Operator operator;
+        public final double threshold;
+
+        Condition(String attributeName, Operator operator, double threshold) {
+            this.attributeName = attributeName;
+            this.operator = operator;
+            this.threshold = threshold;
+        }
+    }
+
+    private static final class LeafTemplate {
+        final List<Condition> path;
+        final String pathText;
+        final String[] stepPrefix;
+        final int[] stepFeature;
+        final String[] stepSuffix;
+
+        LeafTemplate(List<Condition> path) {
+            this.path = path;
+            this.pathText = path.isEmpty() ? NO_PATH_TEXT : PATH_HEADER;
+            this.stepPrefix = new String[path.size()];
+            this.stepFeature = new int[path.size()];
+            this.stepSuffix = new String[path.size()];
+            for (int i = 0; i < path.size(); i++) {
+                Condition c = path.get(i);
+                stepPrefix[i] = stepPrefix(i, c);
+                stepFeature[i] = featureOf(c.attributeName);
+                stepSuffix[i] = stepSuffix(c);
+            }
+        }
+
+        void appendPath(StringBuilder sb, StudentInput input) {
+            sb.append(pathText);
+            for (int i = 0; i < stepPrefix.length; i++) {
+                sb.append(stepPrefix[i]);
+                FixedDecimal.append(sb, value(stepFeature[i], input), 2);
+                sb.append(stepSuffix[i]);
+            }
+        }
+    }
+
+    private static final class Flattener {
+        int[] feature = new int[8];
+        double[] threshold = new double[8];
+        int[] left = new int[8];
+        int[] right = new int[8];
+        Condition[] leftCondition = new Condition[8];
+        Condition[] rightCondition = new Condition[8];
+        int size;
+
+        final List<LeafTemplate> leaves = new ArrayList<>();
+        private final List<Condition> pathSoFar = new ArrayList<>();
+
+        // An inner node becomes binary when it has exactly a "<= t" and a "> t" child on the same
+        // attribute; anything else ends the walk, as no single child could be chosen for it.
+        int add(DecisionNode node) {
+            if (!isBinary(node)) {
+                leaves.add(new LeafTemplate(List.copyOf(pathSoFar)));
+                return ~(leaves.size() - 1);
+            }
+            DecisionNode le = node.children.get(0);
+            DecisionNode gt = node.children.get(1);
+            if (le.condition.operator != Operator.LESS_OR_EQUAL) {
+                DecisionNode t = le;
+                le = gt;
+                gt = t;
+            }
+
+            int id = size++;
+            if (id == feature.length) grow();
+            feature[id] = featureOf(le.condition.attributeName);
+            threshold[id] = le.condition.threshold;
+            leftCondition[id] = le.condition;
+            rightCondition[id] = gt.condition;
+
+            // Unknown attributes can never be evaluated, so the walk always ends at this node.
+            // The subtrees may grow the arrays, so each reference is stored after its add() returns.
+            pathSoFar.add(le.condition);
+            int leftRef = add(le);
+            left[id] = leftRef;
+            pathSoFar.set(pathSoFar.size() - 1, gt.condition);
+            int rightRef = add(gt);
+            right[id] = rightRef;
+            pathSoFar.remove(pathSoFar.size() - 1);
+            return id;
+        }
+
+        private static boolean isBinary(DecisionNode node) {
+            if (node.label != null || node.children.size() != 2) return false;
+            Condition a = node.children.get(0).condition;
+            Condition b = node.children.get(1).condition;
+            return a != null && b != null
+                    && a.operator != b.operator
+                    && a.attributeName.equals(b.attributeName)
+                    && a.threshold == b.threshold;
+        }
+
+        private void grow() {
+            int cap = feature.length * 2;
+            feature = Arrays.copyOf(feature, cap);
+            threshold = Arrays.copyOf(threshold, cap);
+            left = Arrays.copyOf(left, cap);
+            right = Arrays.copyOf(right, cap);
+            leftCondition = Arrays.copyOf(leftCondition, cap);
+            rightCondition = Arrays.copyOf(rightCondition, cap);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import edu.spp.explain.J48Explainer.Condition;
 import edu.spp.explain.J48Explainer.DecisionNode;
+import edu.spp.explain.J48Explainer.Operator;
 
 final class J48TreeTextParser {
 
@@ -120,14 +121,14 @@ final class J48TreeTextParser {
     }
 
     private static Condition parseCondition(String s) {
-        String op;
+        Operator op;
         int opIdx;
-        if ((opIdx = s.indexOf("<=")) >= 0) op = "<=";
-        else if ((opIdx = s.indexOf(">")) >= 0) op = ">";
+        if ((opIdx = s.indexOf("<=")) >= 0) op = Operator.LESS_OR_EQUAL;
+        else if ((opIdx = s.indexOf(">")) >= 0) op = Operator.GREATER;
         else return null;
 
         String attr = s.substring(0, opIdx).trim();
-        String rhs = s.substring(opIdx + op.length()).trim();
+        String rhs = s.substring(opIdx + op.symbol().length()).trim();
         if (attr.isEmpty() || rhs.isEmpty()) return null;
 
         String[] toks = rhs.split("\\s+");
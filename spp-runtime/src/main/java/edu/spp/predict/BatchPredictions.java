@@ -0,0 +1,55 @@
+package edu.spp.predict;
+
+public final class BatchPredictions {
+
+    private final String[] classLabels;
+    private final int[] labelIndex;
+    private final double[] confidence;
+    private final String[] explanations;
+
+    BatchPredictions(String[] classLabels, int[] labelIndex, double[] confidence, String[] explanations) {
+        this.classLabels = classLabels;
+        this.labelIndex = labelIndex;
+        this.confidence = confidence;
+        this.explanations = explanations;
+    }
+
+    public int size() {
+        return labelIndex.length;
+    }
+
+    public String label(int row) {
+        return classLabels[labelIndex[row]];
+    }
+
+    public int labelIndex(int row) {
+        return labelIndex[row];
+    }
+
+    public double confidence(int row) {
+        return confidence[row];
+    }
+
+    public boolean hasExplanations() {
+        return explanations != null;
+    }
+
+    public String explanation(int row) {
+        if (explanations == null) {
+            throw new IllegalStateException("Batch was scored without explanations.");
+        }
+        return explanations[row];
+    }
+
+    public String[] classLabels() {
+        return classLabels.clone();
+    }
+
+    public int[] labelIndices() {
+        return labelIndex;
+    }
+
+    public double[] confidences() {
+        return confidence;
+    }
+}
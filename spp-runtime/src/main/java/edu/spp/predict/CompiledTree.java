@@ -0,0 +1,139 @@
+package edu.spp.predict;
+
+import java.util.Arrays;
+
+public final class CompiledTree implements LeafFunction {
+
+    public static final int FEATURE_STUDY_HOURS = 0;
+    public static final int FEATURE_ATTENDANCE = 1;
+    public static final int FEATURE_PARTICIPATION = 2;
+
+    // Child references >= 0 point at inner nodes, negative ones encode a leaf as ~leafId.
+    private final int root;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+
+    private final String[] classLabels;
+    private final int[] leafClass;
+    private final double[] leafDistribution;
+
+    public CompiledTree(
+            int root,
+            int[] feature,
+            double[] threshold,
+            int[] left,
+            int[] right,
+            String[] classLabels,
+            double[] leafDistribution
+    ) {
+        int nodes = feature.length;
+        if (threshold.length != nodes || left.length != nodes || right.length != nodes) {
+            throw new IllegalArgumentException("Node arrays must have the same length.");
+        }
+        if (classLabels.length == 0 || leafDistribution.length % classLabels.length != 0) {
+            throw new IllegalArgumentException("Leaf distribution does not match the number of classes.");
+        }
+        int leaves = leafDistribution.length / classLabels.length;
+        checkRef(root, nodes, leaves);
+        for (int i = 0; i < nodes; i++) {
+            if (feature[i] < FEATURE_STUDY_HOURS || feature[i] > FEATURE_PARTICIPATION) {
+                throw new IllegalArgumentException("Unknown feature index at node " + i + ": " + feature[i]);
+            }
+            checkRef(left[i], nodes, leaves);
+            checkRef(right[i], nodes, leaves);
+        }
+
+        this.root = root;
+        this.feature = feature.clone();
+        this.threshold = threshold.clone();
+        this.left = left.clone();
+        this.right = right.clone();
+        this.classLabels = classLabels.clone();
+        this.leafDistribution = leafDistribution.clone();
+
+        this.leafClass = new int[leaves];
+        for (int leaf = 0; leaf < leaves; leaf++) {
+            int base = leaf * classLabels.length;
+            int best = 0;
+            for (int c = 1; c < classLabels.length; c++) {
+                if (leafDistribution[base + c] > leafDistribution[base + best]) best = c;
+            }
+            leafClass[leaf] = best;
+        }
+    }
+
+    private static void checkRef(int ref, int nodes, int leaves) {
+        if (ref >= nodes || (ref < 0 && ~ref >= leaves)) {
+            throw new IllegalArgumentException("Dangling node reference: " + ref);
+        }
+    }
+
+    @Override
+    public int leafFor(double studyHours, double attendance, double participation) {
+        int node = root;
+        while (node >= 0) {
+            double v = switch (feature[node]) {
+                case FEATURE_STUDY_HOURS -> studyHours;
+                case FEATURE_ATTENDANCE -> attendance;
+                default -> participation;
+            };
+            node = v <= threshold[node] ? left[node] : right[node];
+        }
+        return ~node;
+    }
+
+    public int leafFor(StudentInput input) {
+        return leafFor(input.weeklySelfStudyHours(), input.attendancePercentage(), input.classParticipation());
+    }
+
+    public int classIndex(int leaf) {
+        return leafClass[leaf];
+    }
+
+    public String label(int leaf) {
+        return classLabels[leafClass[leaf]];
+    }
+
+    public double confidence(int leaf) {
+        return leafDistribution[leaf * classLabels.length + leafClass[leaf]];
+    }
+
+    public double[] distribution(int leaf) {
+        int base = leaf * classLabels.length;
+        return Arrays.copyOfRange(leafDistribution, base, base + classLabels.length);
+    }
+
+    public int numNodes() {
+        return feature.length;
+    }
+
+    public int numLeaves() {
+        return leafClass.length;
+    }
+
+    public String[] classLabels() {
+        return classLabels.clone();
+    }
+
+    public int root() {
+        return root;
+    }
+
+    public int feature(int node) {
+        return feature[node];
+    }
+
+    public double threshold(int node) {
+        return threshold[node];
+    }
+
+    public int left(int node) {
+        return left[node];
+    }
+
+    public int right(int node) {
+        return right[node];
+    }
+}
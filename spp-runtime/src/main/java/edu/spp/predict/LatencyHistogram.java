@@ -0,0 +1,81 @@
+package edu.spp.predict;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram of nanosecond latencies, safe to record into from any number of threads:
+// 16 sub-buckets per power of two, so a reported percentile is within about 6% of the true value.
+// Recording is one atomic increment (plus a CAS the rare times the maximum grows). Reads copy the
+// counts first, so they see a consistent-enough view while recording goes on. PredictionMetrics keeps
+// one per stage; load harnesses keep one per thread and merge them at the end.
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long v = Math.max(nanos, 0);
+        counts.getAndIncrement(bucketOf(v));
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    // Counts recorded while a reset runs may survive it; the histogram is for trends, not audits.
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        max.set(0);
+    }
+
+    public PredictionMetrics.StageLatency snapshot() {
+        long[] copy = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxNanos = max.get();
+        return new PredictionMetrics.StageLatency(
+                total,
+                percentile(copy, total, maxNanos, 50),
+                percentile(copy, total, maxNanos, 90),
+                percentile(copy, total, maxNanos, 99),
+                percentile(copy, total, maxNanos, 99.9),
+                maxNanos);
+    }
+
+    // Upper bound of the bucket holding the requested rank.
+    private static long percentile(long[] counts, long total, long max, double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    private static int bucketOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
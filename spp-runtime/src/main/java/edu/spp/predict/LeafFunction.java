@@ -0,0 +1,7 @@
+package edu.spp.predict;
+
+@FunctionalInterface
+public interface LeafFunction {
+
+    int leafFor(double studyHours, double attendance, double participation);
+}
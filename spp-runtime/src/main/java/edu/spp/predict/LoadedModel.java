@@ -0,0 +1,23 @@
+package edu.spp.predict;
+
+// What Predictor serves: the tree it compiles and explains, and optionally a separate reference scorer
+// (the Weka classifier the tree was exported from). A null reference means the tree is its own. For a
+// bagged ensemble the trees vote instead; treeModel is then its first member, kept for the schema.
+public record LoadedModel(TreeModel treeModel, ReferenceModel reference, TreeEnsemble ensemble) {
+
+    public LoadedModel {
+        if (treeModel == null) throw new IllegalArgumentException("treeModel is required");
+    }
+
+    public LoadedModel(TreeModel treeModel, ReferenceModel reference) {
+        this(treeModel, reference, null);
+    }
+
+    public static LoadedModel of(TreeModel treeModel) {
+        return new LoadedModel(treeModel, null);
+    }
+
+    public static LoadedModel of(TreeEnsemble ensemble) {
+        return new LoadedModel(ensemble.member(0), null, ensemble);
+    }
+}
@@ -0,0 +1,226 @@
+package edu.spp.predict;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Watches the predictor's model file and hot-swaps it when it changes. Loading, validation and
+// warm-up all run on the watcher thread against a snapshot nobody serves yet; only a model that got
+// through all three is published, which is a single volatile write on the scoring side.
+public final class ModelReloader implements AutoCloseable {
+
+    public static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(300);
+    static final int WARM_UP_ROUNDS = 3;
+    static final int HISTORY_SIZE = 32;
+
+    private final Predictor predictor;
+    private final Path modelFile;
+    private final Duration quietPeriod;
+    private final Consumer<ReloadEvent> listener;
+    private final WatchService watcher;
+    private final Thread thread;
+    private final ArrayDeque<ReloadEvent> history = new ArrayDeque<>();
+
+    private long successes;
+    private long failures;
+    private FileTime loadedModified;
+    private long loadedSize = -1;
+    private long loadedCrc = -1;
+
+    private ModelReloader(Predictor predictor, Duration quietPeriod, Consumer<ReloadEvent> listener) throws IOException {
+        this.predictor = predictor;
+        this.modelFile = predictor.modelPath().toPath().toAbsolutePath();
+        this.quietPeriod = quietPeriod;
+        this.listener = listener;
+        if (Files.exists(modelFile)) {
+            this.loadedModified = Files.getLastModifiedTime(modelFile);
+            this.loadedSize = Files.size(modelFile);
+            this.loadedCrc = headerCrc(modelFile);
+        }
+
+        this.watcher = FileSystems.getDefault().newWatchService();
+        modelFile.getParent().register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "model-reloader");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+    }
+
+    public static ModelReloader start(Predictor predictor) throws IOException {
+        return start(predictor, DEFAULT_QUIET_PERIOD, event -> {});
+    }
+
+    // The quiet period is how long the file must go without further events before it is read, so a
+    // writer that saves in place is not caught halfway.
+    public static ModelReloader start(Predictor predictor, Duration quietPeriod, Consumer<ReloadEvent> listener)
+            throws IOException {
+        if (quietPeriod.isNegative()) throw new IllegalArgumentException("quietPeriod must not be negative");
+        ModelReloader reloader = new ModelReloader(predictor, quietPeriod, listener);
+        reloader.thread.start();
+        return reloader;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(successes, failures, history.isEmpty() ? null : history.peekLast());
+    }
+
+    // Oldest first.
+    public synchronized List<ReloadEvent> history() {
+        return new ArrayList<>(history);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+        thread.interrupt();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!isModelEvent(watcher.take())) continue;
+                // Keep draining until the file has been quiet for the whole period.
+                WatchKey key;
+                while ((key = watcher.poll(quietPeriod.toNanos(), TimeUnit.NANOSECONDS)) != null) {
+                    isModelEvent(key);
+                }
+                if (changedOnDisk()) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean isModelEvent(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (modelFile.getFileName().equals(event.context())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private boolean changedOnDisk() {
+        try {
+            if (!Files.exists(modelFile)) return false;
+            return !Files.getLastModifiedTime(modelFile).equals(loadedModified)
+                    || Files.size(modelFile) != loadedSize
+                    // mtime can be too coarse to tell two quick same-sized saves apart; the body CRC cannot
+                    || headerCrc(modelFile) != loadedCrc;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    // The body CRC from a compact or ensemble header (both keep it at offset 12), or -1 for a file
+    // without one, which then falls back to mtime and size alone.
+    static long headerCrc(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(TreeModelFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+                // keep reading until the whole header or end of file
+            }
+            if (head.hasRemaining()) return -1;
+            int magic = head.getInt(0);
+            if (magic != TreeModelFile.MAGIC && magic != TreeEnsembleFile.MAGIC) return -1;
+            return Integer.toUnsignedLong(head.getInt(12));
+        }
+    }
+
+    private void reload() {
+        Instant at = Instant.now();
+        long loadNanos = 0;
+        long validateNanos = 0;
+        long warmUpNanos = 0;
+        try {
+            FileTime modified = Files.getLastModifiedTime(modelFile);
+            long size = Files.size(modelFile);
+            long crc = headerCrc(modelFile);
+
+            long t0 = System.nanoTime();
+            LoadedModel model = Predictor.readModel(modelFile.toFile());
+            ModelSnapshot next = predictor.prepare(model);
+            long t1 = System.nanoTime();
+            next.validate();
+            long t2 = System.nanoTime();
+            next.warmUp(WARM_UP_ROUNDS);
+            long t3 = System.nanoTime();
+            loadNanos = t1 - t0;
+            validateNanos = t2 - t1;
+            warmUpNanos = t3 - t2;
+
+            long version = predictor.publish(next);
+            loadedModified = modified;
+            loadedSize = size;
+            loadedCrc = crc;
+            record(new ReloadEvent(at, true, version, size, loadNanos, validateNanos, warmUpNanos, null), true);
+        } catch (Exception | LinkageError e) {
+            String error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+            record(new ReloadEvent(at, false, predictor.modelVersion(), -1, loadNanos, validateNanos, warmUpNanos, error),
+                    false);
+        }
+    }
+
+    private void record(ReloadEvent event, boolean success) {
+        synchronized (this) {
+            if (success) successes++;
+            else failures++;
+            if (history.size() == HISTORY_SIZE) history.removeFirst();
+            history.addLast(event);
+        }
+        listener.accept(event);
+    }
+
+    // version is the model served after the attempt, so a failed reload reports the one still in use.
+    public record ReloadEvent(
+            Instant at,
+            boolean success,
+            long version,
+            long fileBytes,
+            long loadNanos,
+            long validateNanos,
+            long warmUpNanos,
+            String error
+    ) {
+        public String toHumanString() {
+            if (!success) {
+                return String.format(Locale.US, "Model reload failed at %s, still serving version %d: %s",
+                        at, version, error);
+            }
+            return String.format(
+                    Locale.US,
+                    "Model version %d published at %s (%,d bytes): load %.1f ms, validate %.1f ms, warm-up %.1f ms",
+                    version, at, fileBytes, loadNanos / 1e6, validateNanos / 1e6, warmUpNanos / 1e6);
+        }
+    }
+
+    public record Stats(long successes, long failures, ReloadEvent last) {
+        public String toHumanString() {
+            return String.format(Locale.US, "Model reloads: %d published, %d failed%s",
+                    successes, failures, last != null ? "; last: " + last.toHumanString() : "");
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package edu.spp.predict;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.spp.explain.FixedDecimal;
+import edu.spp.explain.J48Explainer;
+import edu.spp.predict.PredictionMetrics.Stage;
+
+// Everything derived from one trained model. Apart from the reference scorer (which guards itself)
+// and the optional cache, nothing here changes after construction, so any number of threads can
+// score against a snapshot while Predictor publishes a newer one.
+//
+// An ensemble is served through the same paths: its leaf function returns the rounded average
+// probability, which the label and confidence helpers below interpret instead of a leaf id.
+final class ModelSnapshot {
+
+    private final long version;
+    private final ReferenceModel reference;
+    private final J48Explainer explainer;
+    private final Predictor.Backend backend;
+    private final CompiledTree compiled;
+    private final TreeEnsemble ensemble;
+    private final J48Explainer[] memberExplainers;
+    private final LeafFunction leafFunction;
+    private final SliderLookupTable lookupTable;
+    private final PredictionCache cache;
+    private final PredictionMetrics metrics;
+    private final LongAdder[] labelCounts;
+    private final String[] classLabels;
+
+    ModelSnapshot(LoadedModel model, PredictorOptions options, long version) throws Exception {
+        TreeModel treeModel = model.treeModel();
+        checkSchema(treeModel);
+        this.version = version;
+        this.ensemble = model.ensemble();
+        this.classLabels = treeModel.classLabels();
+        this.backend = options.backend();
+        if (ensemble != null) {
+            this.reference = model.reference() != null ? model.reference() : ensemble::distribution;
+            this.explainer = null;
+            this.memberExplainers = new J48Explainer[ensemble.size()];
+            for (int t = 0; t < ensemble.size(); t++) memberExplainers[t] = J48Explainer.fromTree(ensemble.member(t));
+            this.compiled = null;
+        } else {
+            this.reference = model.reference() != null ? model.reference() : treeModel::distribution;
+            this.explainer = J48Explainer.fromTree(treeModel);
+            this.memberExplainers = null;
+            this.compiled = backend == Predictor.Backend.WEKA ? null : treeModel.tree();
+        }
+        // The bytecode generator emits one tree; an ensemble walks its shared node arrays on both
+        // compiled backends.
+        LeafFunction function = switch (backend) {
+            case WEKA -> null;
+            case COMPILED -> ensemble != null ? ensemble : compiled;
+            case BYTECODE -> ensemble != null ? ensemble : generateLeafFunction(compiled);
+        };
+        if (backend == Predictor.Backend.BYTECODE) {
+            verifyAgainstReference(function);
+        }
+        if (options.sliderLookupTable()) {
+            this.lookupTable = new SliderLookupTable(function, ensemble != null ? TreeEnsemble.RESOLUTION + 1 : compiled.numLeaves());
+            function = lookupTable;
+        } else {
+            this.lookupTable = null;
+        }
+        this.leafFunction = function;
+        this.cache = options.cacheSize() > 0 ? new PredictionCache(options.cacheSize()) : null;
+        this.metrics = options.metrics();
+        this.labelCounts = metrics != null ? metrics.labelCounters(classLabels) : null;
+    }
+
+    long version() {
+        return version;
+    }
+
+    Predictor.Backend backend() {
+        return backend;
+    }
+
+    SliderLookupTable.Report lookupTableReport() {
+        return lookupTable != null ? lookupTable.report() : null;
+    }
+
+    PredictionCache.Stats cacheStats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    // The compiled tree addresses features by position, so the names stored with it must line up.
+    private static void checkSchema(TreeModel treeModel) {
+        for (int f = 0; f < TreeModel.NUM_FEATURES; f++) {
+            String name = treeModel.featureName(f);
+            if (StudentSchema.featureOf(name) != f) {
+                throw new IllegalStateException("Model feature " + f + " is '" + name + "', which this runtime does not know at that position.");
+            }
+        }
+    }
+
+    private static LeafFunction generateLeafFunction(CompiledTree tree) throws Exception {
+        try {
+            return TreeClassGenerator.define(tree);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not define the generated tree class.", t);
+        }
+    }
+
+    // Probes both sides of every split threshold (of every member, for an ensemble) and checks the
+    // generated class agrees with the reference.
+    private void verifyAgainstReference(LeafFunction function) throws Exception {
+        List<CompiledTree> trees = new ArrayList<>();
+        if (ensemble != null) {
+            for (int t = 0; t < ensemble.size(); t++) trees.add(ensemble.member(t).tree());
+        } else {
+            trees.add(compiled);
+        }
+        double[][] probes = new double[3][];
+        for (int f = 0; f < probes.length; f++) {
+            TreeSet<Double> values = new TreeSet<>();
+            for (CompiledTree tree : trees) {
+                for (int node = 0; node < tree.numNodes(); node++) {
+                    if (tree.feature(node) != f) continue;
+                    double t = tree.threshold(node);
+                    values.add(t);
+                    values.add(Math.nextUp(t));
+                }
+            }
+            if (values.isEmpty()) values.add(0.0);
+            probes[f] = values.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        long combinations = (long) probes[0].length * probes[1].length * probes[2].length;
+        Random random = new Random(42);
+        int checks = (int) Math.min(combinations, Predictor.VERIFY_MAX_PROBES);
+        for (int i = 0; i < checks; i++) {
+            double h;
+            double a;
+            double p;
+            if (combinations <= Predictor.VERIFY_MAX_PROBES) {
+                h = probes[0][i % probes[0].length];
+                a = probes[1][(i / probes[0].length) % probes[1].length];
+                p = probes[2][(int) (i / ((long) probes[0].length * probes[1].length))];
+            } else {
+                h = probes[0][random.nextInt(probes[0].length)];
+                a = probes[1][random.nextInt(probes[1].length)];
+                p = probes[2][random.nextInt(probes[2].length)];
+            }
+
+            double[] dist = reference.distribution(h, a, p);
+            int expected = argMax(dist);
+            int leaf = function.leafFor(h, a, p);
+            if (classIndexOf(leaf) != expected || confidenceOf(leaf) != dist[expected]) {
+                throw new IllegalStateException(String.format(
+                        Locale.US,
+                        "Generated tree disagrees with the reference model at (%s, %s, %s): %s vs %s",
+                        h, a, p, classLabels[classIndexOf(leaf)], classLabels[expected]));
+            }
+        }
+    }
+
+    // Checked before a reloaded model is published: the compiled path must agree with the reference
+    // scorer, and the reference must score over the classes the tree labels its leaves with.
+    void validate() throws Exception {
+        if (leafFunction != null) {
+            verifyAgainstReference(leafFunction);
+        }
+        double[] dist = reference.distribution(20.0, 80.0, 5.0);
+        if (dist.length != classLabels.length) {
+            throw new IllegalStateException(
+                    "Model predicts " + dist.length + " classes, the tree has " + classLabels.length + ".");
+        }
+    }
+
+    // Runs the slider grid through predict() and renders each explanation once, so the first real
+    // requests after a reload find the code paths compiled and the cache (if any) filled.
+    void warmUp(int rounds) throws Exception {
+        for (int r = 0; r < rounds; r++) {
+            for (int h = SliderLookupTable.STUDY_MIN; h <= SliderLookupTable.STUDY_MAX; h++) {
+                for (int a = SliderLookupTable.ATTENDANCE_MIN; a <= SliderLookupTable.ATTENDANCE_MAX; a += 5) {
+                    for (int p = SliderLookupTable.PARTICIPATION_MIN; p <= SliderLookupTable.PARTICIPATION_MAX; p++) {
+                        PredictionResult result = predict(new StudentInput(0, h, a, p), null, false);
+                        if (r == 0) result.explanation();
+                    }
+                }
+            }
+        }
+    }
+
+    PredictionResult predict(StudentInput input) throws Exception {
+        if (metrics == null) {
+            return predict(input, null, false);
+        }
+        PredictionResult result = predict(input, metrics, metrics.sampleFastStages());
+        String label = result.predictedLabel();
+        for (int c = 0; c < classLabels.length; c++) {
+            if (classLabels[c].equals(label)) labelCounts[c].increment();
+        }
+        return result;
+    }
+
+    // metrics is null when they are off, and for the warm-up, which is not traffic. Every timing below
+    // sits behind that check, so an uninstrumented call never reads the clock. The cache and the
+    // compiled walk are only timed on sampled calls (timeFast).
+    private PredictionResult predict(StudentInput input, PredictionMetrics metrics, boolean timeFast) throws Exception {
+        PredictionResult.ExplanationRenderer renderer = metrics != null ? this::renderMeasured : this::renderExplanation;
+        if (cache == null) {
+            return predictUncached(input, metrics, timeFast, renderer);
+        }
+        long start = timeFast ? System.nanoTime() : 0;
+        PredictionCache.Key key = PredictionCache.keyOf(input);
+        PredictionCache.Entry entry = cache.get(key);
+        if (timeFast) metrics.record(Stage.CACHE, System.nanoTime() - start);
+        if (entry == null) {
+            PredictionResult result = predictUncached(input, metrics, timeFast, renderer);
+            entry = new PredictionCache.Entry(result.predictedLabel(), result.confidence());
+            cache.put(key, entry);
+        }
+        PredictionCache.Entry shared = entry;
+        return new PredictionResult(input, shared.label(), shared.confidence(),
+                (in, label, confidence) -> shared.explanation(in, renderer));
+    }
+
+    private PredictionResult predictUncached(
+            StudentInput input,
+            PredictionMetrics metrics,
+            boolean timeFast,
+            PredictionResult.ExplanationRenderer renderer
+    ) throws Exception {
+        if (leafFunction == null || hasMissingValue(input)) {
+            return predictWithReference(input, metrics, renderer);
+        }
+
+        long start = timeFast ? System.nanoTime() : 0;
+        int leaf = leafFunction.leafFor(
+                input.weeklySelfStudyHours(), input.attendancePercentage(), input.classParticipation());
+        if (timeFast) metrics.record(Stage.LOOKUP, System.nanoTime() - start);
+        return new PredictionResult(input, classLabels[classIndexOf(leaf)], confidenceOf(leaf), renderer);
+    }
+
+    private PredictionResult predictWithReference(
+            StudentInput input,
+            PredictionMetrics metrics,
+            PredictionResult.ExplanationRenderer renderer
+    ) throws Exception {
+        long start = metrics != null ? System.nanoTime() : 0;
+        double[] dist = reference.distribution(
+                input.weeklySelfStudyHours(), input.attendancePercentage(), input.classParticipation());
+        if (metrics != null) metrics.record(Stage.REFERENCE, System.nanoTime() - start);
+        int predictedIndex = argMax(dist);
+        return new PredictionResult(input, classLabels[predictedIndex], dist[predictedIndex], renderer);
+    }
+
+    private String renderExplanation(StudentInput input, String label, double confidence) {
+        return formatExplanation(explanationText(input, label, decide(input, label)), confidence);
+    }
+
+    // EXPLAIN is the tree walk (every member's, for an ensemble), RENDER the text built from it.
+    private String renderMeasured(StudentInput input, String label, double confidence) {
+        long start = System.nanoTime();
+        Decision decision = decide(input, label);
+        long explained = System.nanoTime();
+        String rendered = formatExplanation(explanationText(input, label, decision), confidence);
+        metrics.record(Stage.EXPLAIN, explained - start);
+        metrics.record(Stage.RENDER, System.nanoTime() - explained);
+        return rendered;
+    }
+
+    // The path to explain and, for an ensemble, the vote that picked it.
+    private record Decision(J48Explainer explainer, J48Explainer.Trace trace, Vote vote) {}
+
+    private record Vote(int tree, int agreeing, double averageProbability) {}
+
+    private Decision decide(StudentInput input, String label) {
+        if (ensemble == null) {
+            return new Decision(explainer, explainer.trace(input), null);
+        }
+        Vote vote = vote(input, label);
+        J48Explainer member = memberExplainers[vote.tree()];
+        return new Decision(member, member.trace(input), vote);
+    }
+
+    // The majority path: of the trees that predict the ensemble's class on their own, the one whose leaf
+    // gives that class the highest probability (the first on ties), followed by the vote split and the
+    // averaged probability the decision was made on. Averaging can overrule a narrow majority, so with
+    // no agreeing tree the path is that of the tree closest to agreeing.
+    private Vote vote(StudentInput input, String label) {
+        double h = input.weeklySelfStudyHours();
+        double a = input.attendancePercentage();
+        double p = input.classParticipation();
+        int predicted = List.of(classLabels).indexOf(label);
+        int votes = 0;
+        double probabilitySum = 0.0;
+        int best = 0;
+        boolean bestAgrees = false;
+        double bestProbability = -1.0;
+        for (int t = 0; t < ensemble.size(); t++) {
+            TreeModel member = ensemble.member(t);
+            double[] dist = member.distribution(h, a, p);
+            double probability = member.probabilities(h, a, p)[predicted];
+            boolean agrees = (dist[1] > dist[0] ? 1 : 0) == predicted;
+            if (dist[1] > dist[0]) votes++;
+            probabilitySum += probability;
+            if ((agrees && !bestAgrees) || (agrees == bestAgrees && probability > bestProbability)) {
+                best = t;
+                bestAgrees = agrees;
+                bestProbability = probability;
+            }
+        }
+        int agreeing = predicted == 1 ? votes : ensemble.size() - votes;
+        return new Vote(best, agreeing, probabilitySum / ensemble.size());
+    }
+
+    private String explanationText(StudentInput input, String label, Decision decision) {
+        String text = decision.explainer().explain(input, label, decision.trace()).englishText();
+        Vote vote = decision.vote();
+        if (vote == null) {
+            return text;
+        }
+        int predicted = List.of(classLabels).indexOf(label);
+        return String.format(Locale.US,
+                "%s\nEnsemble vote: %d of %d trees predict %s, %d predict %s; average %s probability %.0f%% (path above from tree %d).",
+                text, vote.agreeing(), ensemble.size(), label, ensemble.size() - vote.agreeing(), classLabels[1 - predicted],
+                label, vote.averageProbability() * 100.0, vote.tree() + 1);
+    }
+
+    BatchPredictions scoreBatch(
+            double[] study,
+            double[] attendance,
+            double[] participation,
+            List<StudentInput> inputs,
+            boolean withExplanations,
+            ForkJoinPool pool
+    ) throws Exception {
+        int n = study.length;
+        BatchJob job = new BatchJob(study, attendance, participation, inputs, withExplanations);
+
+        if (leafFunction != null) {
+            if (n <= Predictor.BATCH_SPLIT_THRESHOLD) {
+                job.score(0, n);
+            } else {
+                pool.invoke(new BatchTask(job, 0, n));
+            }
+        }
+
+        // Rows the compiled path skipped go through the reference one by one on the calling thread.
+        for (int i = 0; i < n; i++) {
+            if (job.labelIndex[i] >= 0) continue;
+            long start = metrics != null ? System.nanoTime() : 0;
+            double[] dist = reference.distribution(study[i], attendance[i], participation[i]);
+            if (metrics != null) metrics.record(Stage.REFERENCE, System.nanoTime() - start);
+            int predictedIndex = argMax(dist);
+            job.labelIndex[i] = predictedIndex;
+            job.confidence[i] = dist[predictedIndex];
+            if (withExplanations) {
+                job.explanations[i] = job.render(i);
+            }
+        }
+
+        if (metrics != null) {
+            long[] counts = new long[classLabels.length];
+            for (int label : job.labelIndex) counts[label]++;
+            for (int c = 0; c < counts.length; c++) labelCounts[c].add(counts[c]);
+        }
+
+        return new BatchPredictions(classLabels, job.labelIndex, job.confidence, job.explanations);
+    }
+
+    private final class BatchJob {
+        final double[] study;
+        final double[] attendance;
+        final double[] participation;
+        final List<StudentInput> inputs;
+        final int[] labelIndex;
+        final double[] confidence;
+        final String[] explanations;
+
+        BatchJob(
+                double[] study,
+                double[] attendance,
+                double[] participation,
+                List<StudentInput> inputs,
+                boolean withExplanations
+        ) {
+            this.study = study;
+            this.attendance = attendance;
+            this.participation = participation;
+            this.inputs = inputs;
+            this.labelIndex = new int[study.length];
+            this.confidence = new double[study.length];
+            this.explanations = withExplanations ? new String[study.length] : null;
+            Arrays.fill(labelIndex, -1);
+        }
+
+        StudentInput input(int row) {
+            return inputs != null ? inputs.get(row) : new StudentInput(row, study[row], attendance[row], participation[row]);
+        }
+
+        String render(int row) {
+            StudentInput in = input(row);
+            String label = classLabels[labelIndex[row]];
+            return metrics != null ? renderMeasured(in, label, confidence[row]) : renderExplanation(in, label, confidence[row]);
+        }
+
+        void score(int from, int to) {
+            for (int i = from; i < to; i++) {
+                double h = study[i];
+                double a = attendance[i];
+                double p = participation[i];
+                if (Double.isNaN(h) || Double.isNaN(a) || Double.isNaN(p)) continue;
+
+                int leaf = leafFunction.leafFor(h, a, p);
+                labelIndex[i] = classIndexOf(leaf);
+                confidence[i] = confidenceOf(leaf);
+            }
+            if (explanations != null) {
+                for (int i = from; i < to; i++) {
+                    if (labelIndex[i] < 0) continue;
+                    explanations[i] = render(i);
+                }
+            }
+        }
+    }
+
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BatchJob job;
+        private final int from;
+        private final int to;
+
+        BatchTask(BatchJob job, int from, int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= Predictor.BATCH_SPLIT_THRESHOLD) {
+                job.score(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(job, from, mid), new BatchTask(job, mid, to));
+        }
+    }
+
+    // leaf is a leaf id of the compiled tree, or an ensemble outcome.
+    private int classIndexOf(int leaf) {
+        return ensemble != null ? ensemble.classIndex(leaf) : compiled.classIndex(leaf);
+    }
+
+    private double confidenceOf(int leaf) {
+        return ensemble != null ? ensemble.confidence(leaf) : compiled.confidence(leaf);
+    }
+
+    private static String formatExplanation(String englishText, double confidence) {
+        StringBuilder sb = new StringBuilder(englishText.length() + 24)
+                .append(englishText)
+                .append("\n\nModel confidence: ");
+        return FixedDecimal.append(sb, confidence * 100.0, 0).append('%').toString();
+    }
+
+    // J48 spreads missing values across both branches, which the compiled walk does not model.
+    private static boolean hasMissingValue(StudentInput input) {
+        return Double.isNaN(input.weeklySelfStudyHours())
+                || Double.isNaN(input.attendancePercentage())
+                || Double.isNaN(input.classParticipation());
+    }
+
+    private static int argMax(double[] arr) {
+        int best = 0;
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i] > arr[best]) best = i;
+        }
+        return best;
+    }
+}
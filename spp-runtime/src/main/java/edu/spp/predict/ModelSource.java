@@ -0,0 +1,14 @@
+package edu.spp.predict;
+
+import java.io.File;
+import java.io.IOException;
+
+// Reads model files the runtime cannot read by itself. Implementations are found with ServiceLoader,
+// so putting the training module on the classpath is enough to serve Java-serialized Weka models.
+public interface ModelSource {
+
+    // Usually decided from the file's first bytes.
+    boolean canRead(File file) throws IOException;
+
+    LoadedModel read(File file) throws Exception;
+}
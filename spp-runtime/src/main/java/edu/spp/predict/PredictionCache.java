@@ -0,0 +1,109 @@
+package edu.spp.predict;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Access-ordered LRU over the feature triple. The student id is deliberately not part of the key,
+// since the label, confidence and explanation text only depend on the three feature values.
+public final class PredictionCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    PredictionCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > PredictionCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Record equality compares doubles by their canonical bits, so every NaN shares one entry while
+    // -0.0 and 0.0 stay apart (the explanation prints them differently).
+    static Key keyOf(StudentInput input) {
+        return new Key(input.weeklySelfStudyHours(), input.attendancePercentage(), input.classParticipation());
+    }
+
+    Entry get(Key key) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(key);
+        }
+        if (e != null) hits.increment();
+        else misses.increment();
+        return e;
+    }
+
+    void put(Key key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, capacity);
+    }
+
+    record Key(double studyHours, double attendance, double participation) {
+    }
+
+    // The explanation text only depends on the feature triple, so the first rendering is shared by
+    // every later hit on the same entry.
+    static final class Entry {
+        private final String label;
+        private final double confidence;
+        private volatile String explanation;
+
+        Entry(String label, double confidence) {
+            this.label = label;
+            this.confidence = confidence;
+        }
+
+        String label() {
+            return label;
+        }
+
+        double confidence() {
+            return confidence;
+        }
+
+        String explanation(StudentInput input, PredictionResult.ExplanationRenderer renderer) {
+            String text = explanation;
+            if (text == null) {
+                text = renderer.render(input, label, confidence);
+                explanation = text;
+            }
+            return text;
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        public String toHumanString() {
+            return String.format(
+                    Locale.US,
+                    "Prediction cache: %,d/%,d entries, hits=%,d, misses=%,d, evictions=%,d (hit rate %.1f%%)",
+                    size, capacity, hits, misses, evictions, hitRate() * 100.0);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package edu.spp.predict;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Per-stage latency distributions and prediction counts by label, for a Predictor created with
+// PredictorOptions.withMetrics. One instance outlives model reloads, so the numbers cover every model
+// served. Without it the scoring paths skip all timing: nothing is read from the clock or recorded.
+//
+// The reference scorer, the explanation and the rendering are timed on every call. The cache and the
+// compiled walk take tens of nanoseconds, about as long as reading the clock, so single predictions time
+// them on one call in FAST_STAGE_SAMPLE (picked at random, which keeps the percentiles unbiased) and
+// batches not at all. Batches count their labels like single predictions.
+public final class PredictionMetrics implements PredictionMetricsMXBean {
+
+    static final int FAST_STAGE_SAMPLE = 64;
+
+    public enum Stage {
+        // Looking the feature triple up in the prediction cache. Sampled.
+        CACHE,
+        // The compiled tree or ensemble walk, or the slider lookup table in front of it. Sampled.
+        LOOKUP,
+        // The reference scorer: for a Weka model, building the instance and distributionForInstance.
+        REFERENCE,
+        // Walking the tree to the decision path (for an ensemble, every member's vote and the chosen path).
+        EXPLAIN,
+        // Filling the explanation template with the path and the inputs, plus the confidence line.
+        RENDER
+    }
+
+    public record StageLatency(long count, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+        public String toHumanString() {
+            return String.format(Locale.US, "n=%,d p50=%.1f us p90=%.1f us p99=%.1f us p99.9=%.1f us max=%.1f us",
+                    count, p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e3);
+        }
+    }
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    private final ConcurrentHashMap<String, LongAdder> labels = new ConcurrentHashMap<>();
+
+    public PredictionMetrics() {
+        for (int s = 0; s < stages.length; s++) stages[s] = new LatencyHistogram();
+    }
+
+    // Publishes this instance on the platform MBean server as edu.spp:type=PredictionMetrics,name=<name>.
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("edu.spp:type=PredictionMetrics,name=" + name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    boolean sampleFastStages() {
+        return ThreadLocalRandom.current().nextInt(FAST_STAGE_SAMPLE) == 0;
+    }
+
+    void record(Stage stage, long nanos) {
+        stages[stage.ordinal()].record(nanos);
+    }
+
+    // Resolved once per model, so counting a prediction is a single LongAdder increment.
+    LongAdder[] labelCounters(String[] classLabels) {
+        LongAdder[] counters = new LongAdder[classLabels.length];
+        for (int c = 0; c < classLabels.length; c++) {
+            counters[c] = labels.computeIfAbsent(classLabels[c], l -> new LongAdder());
+        }
+        return counters;
+    }
+
+    public StageLatency latency(Stage stage) {
+        return stages[stage.ordinal()].snapshot();
+    }
+
+    @Override
+    public StageLatency getCacheLatency() {
+        return latency(Stage.CACHE);
+    }
+
+    @Override
+    public StageLatency getLookupLatency() {
+        return latency(Stage.LOOKUP);
+    }
+
+    @Override
+    public StageLatency getReferenceLatency() {
+        return latency(Stage.REFERENCE);
+    }
+
+    @Override
+    public StageLatency getExplainLatency() {
+        return latency(Stage.EXPLAIN);
+    }
+
+    @Override
+    public StageLatency getRenderLatency() {
+        return latency(Stage.RENDER);
+    }
+
+    @Override
+    public long getPredictions() {
+        long total = 0;
+        for (LongAdder count : labels.values()) total += count.sum();
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getPredictionsByLabel() {
+        Map<String, Long> counts = new TreeMap<>();
+        labels.forEach((label, count) -> counts.put(label, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram stage : stages) stage.reset();
+        labels.values().forEach(LongAdder::reset);
+    }
+
+    public String toHumanString() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.US, "Predictions: %,d %s", getPredictions(), getPredictionsByLabel()));
+        for (Stage stage : Stage.values()) {
+            StageLatency latency = latency(stage);
+            if (latency.count() == 0) continue;
+            sb.append(String.format(Locale.US, "%n  %-9s %s", stage.name().toLowerCase(Locale.ROOT), latency.toHumanString()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package edu.spp.predict;
+
+import java.util.Map;
+
+// What jconsole, VisualVM or any JMX client sees under edu.spp:type=PredictionMetrics. Latencies are in
+// nanoseconds and cover every prediction since start-up or the last reset().
+public interface PredictionMetricsMXBean {
+
+    PredictionMetrics.StageLatency getCacheLatency();
+
+    PredictionMetrics.StageLatency getLookupLatency();
+
+    PredictionMetrics.StageLatency getReferenceLatency();
+
+    PredictionMetrics.StageLatency getExplainLatency();
+
+    PredictionMetrics.StageLatency getRenderLatency();
+
+    long getPredictions();
+
+    Map<String, Long> getPredictionsByLabel();
+
+    void reset();
+}
@@ -0,0 +1,105 @@
+package edu.spp.predict;
+
+import java.util.Locale;
+import java.util.Objects;
+
+// The explanation text is rendered on the first call to explanation() and kept afterwards, so callers
+// that only read the label and confidence never pay for the English rendering.
+public final class PredictionResult {
+
+    @FunctionalInterface
+    interface ExplanationRenderer {
+
+        String render(StudentInput input, String predictedLabel, double confidence);
+    }
+
+    private final StudentInput input;
+    private final String predictedLabel;
+    private final double confidence;
+    private ExplanationRenderer renderer;
+    private volatile String explanation;
+
+    public PredictionResult(StudentInput input, String predictedLabel, double confidence, String explanation) {
+        this.input = input;
+        this.predictedLabel = predictedLabel;
+        this.confidence = confidence;
+        this.explanation = Objects.requireNonNull(explanation, "explanation");
+    }
+
+    PredictionResult(StudentInput input, String predictedLabel, double confidence, ExplanationRenderer renderer) {
+        this.input = input;
+        this.predictedLabel = predictedLabel;
+        this.confidence = confidence;
+        this.renderer = Objects.requireNonNull(renderer, "renderer");
+    }
+
+    public StudentInput input() {
+        return input;
+    }
+
+    public String predictedLabel() {
+        return predictedLabel;
+    }
+
+    public double confidence() {
+        return confidence;
+    }
+
+    public String explanation() {
+        String text = explanation;
+        if (text == null) {
+            synchronized (this) {
+                text = explanation;
+                if (text == null) {
+                    text = renderer.render(input, predictedLabel, confidence);
+                    explanation = text;
+                    renderer = null;
+                }
+            }
+        }
+        return text;
+    }
+
+    public boolean isExplanationRendered() {
+        return explanation != null;
+    }
+
+    public String toHumanString() {
+        return String.format(
+                Locale.US,
+                """
+                Student %d prediction: %s (confidence %.0f%%)
+
+                %s
+                ------------------------------------------------------------
+                """,
+                input.studentId(),
+                predictedLabel,
+                confidence * 100.0,
+                explanation()
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PredictionResult other)) return false;
+        return Objects.equals(input, other.input)
+                && Objects.equals(predictedLabel, other.predictedLabel)
+                && Double.compare(confidence, other.confidence) == 0
+                && explanation().equals(other.explanation());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(input, predictedLabel, confidence, explanation());
+    }
+
+    @Override
+    public String toString() {
+        return "PredictionResult[input=" + input
+                + ", predictedLabel=" + predictedLabel
+                + ", confidence=" + confidence
+                + ", explanation=" + explanation() + "]";
+    }
+}
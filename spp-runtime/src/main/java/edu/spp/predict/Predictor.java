@@ -0,0 +1,169 @@
+package edu.spp.predict;
+
+import java.io.File;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Safe to share between threads. Each call reads the current model snapshot once and finishes on it,
+// so swap() and reload() never block scoring and never mix two models inside one result or batch.
+public final class Predictor {
+
+    // The compact file TrainModel writes next to the Weka model; the runtime reads it without Weka.
+    public static final File DEFAULT_MODEL_PATH = new File("model/student_j48_passfail.sppm");
+
+    public enum Backend {
+        // Every row goes through the model's ReferenceModel: the Weka classifier when the training
+        // module loaded a Java-serialized model, the interpreted tree otherwise.
+        WEKA,
+        COMPILED,
+        BYTECODE
+    }
+
+    static final int BATCH_SPLIT_THRESHOLD = 16_384;
+    static final int VERIFY_MAX_PROBES = 100_000;
+
+    private final File modelPath;
+    private final PredictorOptions options;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile ModelSnapshot current;
+
+    private Predictor(File modelPath, LoadedModel model, PredictorOptions options) throws Exception {
+        this.modelPath = modelPath;
+        this.options = options;
+        this.current = prepare(model);
+    }
+
+    public static Predictor loadDefault() throws Exception {
+        return loadDefault(PredictorOptions.defaults());
+    }
+
+    public static Predictor loadDefault(Backend backend) throws Exception {
+        return loadDefault(PredictorOptions.defaults().withBackend(backend));
+    }
+
+    public static Predictor loadDefault(PredictorOptions options) throws Exception {
+        return load(DEFAULT_MODEL_PATH, options);
+    }
+
+    public static Predictor load(File modelPath, Backend backend) throws Exception {
+        return load(modelPath, PredictorOptions.defaults().withBackend(backend));
+    }
+
+    public static Predictor load(File modelPath, PredictorOptions options) throws Exception {
+        return new Predictor(modelPath, readModel(modelPath), options);
+    }
+
+    // Compact files are read here; anything else needs an installed ModelSource.
+    static LoadedModel readModel(File modelPath) throws Exception {
+        if (!modelPath.exists()) {
+            throw new IllegalStateException("Model not found. Train first: " + modelPath.getPath());
+        }
+        if (TreeModelFile.isTreeModelFile(modelPath.toPath())) {
+            return LoadedModel.of(TreeModelFile.read(modelPath.toPath()));
+        }
+        if (TreeEnsembleFile.isEnsembleFile(modelPath.toPath())) {
+            return LoadedModel.of(TreeEnsembleFile.read(modelPath.toPath()));
+        }
+        for (ModelSource source : ServiceLoader.load(ModelSource.class)) {
+            if (source.canRead(modelPath)) {
+                return source.read(modelPath);
+            }
+        }
+        throw new IllegalStateException("Not a compact model file: " + modelPath.getPath()
+                + ". Java-serialized models need spp-training on the classpath, or convert them with edu.spp.ml.ExportModel.");
+    }
+
+    // Builds (and for BYTECODE verifies) everything for the new model before publishing it. Calls
+    // already running keep the snapshot they started with; a failed build leaves the old model serving.
+    public long swap(LoadedModel model) throws Exception {
+        return publish(prepare(model));
+    }
+
+    public long swap(TreeModel model) throws Exception {
+        return swap(LoadedModel.of(model));
+    }
+
+    ModelSnapshot prepare(LoadedModel model) throws Exception {
+        return new ModelSnapshot(model, options, versions.incrementAndGet());
+    }
+
+    synchronized long publish(ModelSnapshot next) {
+        if (next.version() <= current.version()) {
+            throw new IllegalStateException("A newer model is already being served: version " + current.version());
+        }
+        current = next;
+        return next.version();
+    }
+
+    public long reload() throws Exception {
+        return publish(prepare(readModel(modelPath)));
+    }
+
+    public File modelPath() {
+        return modelPath;
+    }
+
+    // Starts at 1 and increases with every successful swap; failed builds may leave gaps.
+    public long modelVersion() {
+        return current.version();
+    }
+
+    public Backend backend() {
+        return options.backend();
+    }
+
+    public SliderLookupTable.Report lookupTableReport() {
+        return current.lookupTableReport();
+    }
+
+    public PredictionCache.Stats cacheStats() {
+        return current.cacheStats();
+    }
+
+    public PredictionResult predict(StudentInput input) throws Exception {
+        return current.predict(input);
+    }
+
+    public BatchPredictions predictBatch(List<StudentInput> inputs, boolean withExplanations) throws Exception {
+        return predictBatch(inputs, withExplanations, ForkJoinPool.commonPool());
+    }
+
+    public BatchPredictions predictBatch(List<StudentInput> inputs, boolean withExplanations, ForkJoinPool pool)
+            throws Exception {
+        int n = inputs.size();
+        double[] study = new double[n];
+        double[] attendance = new double[n];
+        double[] participation = new double[n];
+        for (int i = 0; i < n; i++) {
+            StudentInput in = inputs.get(i);
+            study[i] = in.weeklySelfStudyHours();
+            attendance[i] = in.attendancePercentage();
+            participation[i] = in.classParticipation();
+        }
+        return current.scoreBatch(study, attendance, participation, withExplanations ? inputs : null, withExplanations, pool);
+    }
+
+    public BatchPredictions predictBatch(
+            double[] studyHours,
+            double[] attendance,
+            double[] participation,
+            boolean withExplanations
+    ) throws Exception {
+        return predictBatch(studyHours, attendance, participation, withExplanations, ForkJoinPool.commonPool());
+    }
+
+    public BatchPredictions predictBatch(
+            double[] studyHours,
+            double[] attendance,
+            double[] participation,
+            boolean withExplanations,
+            ForkJoinPool pool
+    ) throws Exception {
+        if (attendance.length != studyHours.length || participation.length != studyHours.length) {
+            throw new IllegalArgumentException("Feature columns must have the same length.");
+        }
+        return current.scoreBatch(studyHours, attendance, participation, null, withExplanations, pool);
+    }
+}
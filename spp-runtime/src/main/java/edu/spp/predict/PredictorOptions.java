@@ -0,0 +1,38 @@
+package edu.spp.predict;
+
+public record PredictorOptions(
+        Predictor.Backend backend,
+        boolean sliderLookupTable,
+        int cacheSize,
+        PredictionMetrics metrics
+) {
+    public PredictorOptions {
+        if (backend == null) throw new IllegalArgumentException("backend must not be null");
+        if (sliderLookupTable && backend == Predictor.Backend.WEKA) {
+            throw new IllegalArgumentException("The slider lookup table needs a compiled backend.");
+        }
+        if (cacheSize < 0) throw new IllegalArgumentException("cacheSize must not be negative: " + cacheSize);
+    }
+
+    public static PredictorOptions defaults() {
+        return new PredictorOptions(Predictor.Backend.COMPILED, false, 0, null);
+    }
+
+    public PredictorOptions withBackend(Predictor.Backend backend) {
+        return new PredictorOptions(backend, sliderLookupTable, cacheSize, metrics);
+    }
+
+    public PredictorOptions withSliderLookupTable(boolean enabled) {
+        return new PredictorOptions(backend, enabled, cacheSize, metrics);
+    }
+
+    // 0 disables the cache; otherwise the most recently used feature triples are kept.
+    public PredictorOptions withCache(int maxEntries) {
+        return new PredictorOptions(backend, sliderLookupTable, maxEntries, metrics);
+    }
+
+    // null (the default) turns the instrumentation off.
+    public PredictorOptions withMetrics(PredictionMetrics metrics) {
+        return new PredictorOptions(backend, sliderLookupTable, cacheSize, metrics);
+    }
+}
@@ -0,0 +1,9 @@
+package edu.spp.predict;
+
+// The scorer every other path must agree with: used by the WEKA backend for all rows, by the compiled
+// backends for rows with missing values, and to verify generated code before a model is published.
+// Without Weka on the classpath this is the model's own TreeModel.
+public interface ReferenceModel {
+
+    double[] distribution(double studyHours, double attendance, double participation) throws Exception;
+}
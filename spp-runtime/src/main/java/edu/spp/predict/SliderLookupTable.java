@@ -0,0 +1,79 @@
+package edu.spp.predict;
+
+import java.util.Locale;
+
+// Dense leaf table over the integer inputs the UI sliders can produce. Anything outside that grid
+// (fractions, out-of-range values, NaN) is delegated to the wrapped function.
+public final class SliderLookupTable implements LeafFunction {
+
+    static final int STUDY_MIN = 0;
+    static final int STUDY_MAX = 40;
+    static final int ATTENDANCE_MIN = 50;
+    static final int ATTENDANCE_MAX = 100;
+    static final int PARTICIPATION_MIN = 0;
+    static final int PARTICIPATION_MAX = 10;
+
+    private static final int STUDY_SPAN = STUDY_MAX - STUDY_MIN + 1;
+    private static final int ATTENDANCE_SPAN = ATTENDANCE_MAX - ATTENDANCE_MIN + 1;
+    private static final int PARTICIPATION_SPAN = PARTICIPATION_MAX - PARTICIPATION_MIN + 1;
+    static final int CELLS = STUDY_SPAN * ATTENDANCE_SPAN * PARTICIPATION_SPAN;
+
+    private final LeafFunction fallback;
+    private final byte[] byteLeaves;
+    private final short[] shortLeaves;
+    private final Report report;
+
+    SliderLookupTable(LeafFunction fallback, int numLeaves) {
+        if (numLeaves > 65_536) {
+            throw new IllegalArgumentException("Too many leaves for a lookup table: " + numLeaves);
+        }
+        long start = System.nanoTime();
+        this.fallback = fallback;
+        boolean narrow = numLeaves <= 256;
+        this.byteLeaves = narrow ? new byte[CELLS] : null;
+        this.shortLeaves = narrow ? null : new short[CELLS];
+
+        int cell = 0;
+        for (int h = STUDY_MIN; h <= STUDY_MAX; h++) {
+            for (int a = ATTENDANCE_MIN; a <= ATTENDANCE_MAX; a++) {
+                for (int p = PARTICIPATION_MIN; p <= PARTICIPATION_MAX; p++) {
+                    int leaf = fallback.leafFor(h, a, p);
+                    if (narrow) byteLeaves[cell] = (byte) leaf;
+                    else shortLeaves[cell] = (short) leaf;
+                    cell++;
+                }
+            }
+        }
+
+        long bytes = narrow ? byteLeaves.length : 2L * shortLeaves.length;
+        this.report = new Report(CELLS, bytes, System.nanoTime() - start);
+    }
+
+    @Override
+    public int leafFor(double studyHours, double attendance, double participation) {
+        int h = (int) studyHours;
+        int a = (int) attendance;
+        int p = (int) participation;
+        if (h != studyHours || a != attendance || p != participation
+                || h < STUDY_MIN || h > STUDY_MAX
+                || a < ATTENDANCE_MIN || a > ATTENDANCE_MAX
+                || p < PARTICIPATION_MIN || p > PARTICIPATION_MAX) {
+            return fallback.leafFor(studyHours, attendance, participation);
+        }
+        int cell = ((h - STUDY_MIN) * ATTENDANCE_SPAN + (a - ATTENDANCE_MIN)) * PARTICIPATION_SPAN + (p - PARTICIPATION_MIN);
+        return byteLeaves != null ? byteLeaves[cell] & 0xFF : shortLeaves[cell] & 0xFFFF;
+    }
+
+    public Report report() {
+        return report;
+    }
+
+    public record Report(int cells, long memoryBytes, long buildNanos) {
+        public String toHumanString() {
+            return String.format(
+                    Locale.US,
+                    "Slider lookup table: %,d cells, %,d bytes, built in %.2f ms",
+                    cells, memoryBytes, buildNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.spp.predict;
+
+// Column and attribute names shared by the runtime and the training pipeline.
+public final class StudentSchema {
+
+    public static final String ATTR_STUDY_HOURS = "weekly_self_study_hours";
+    public static final String ATTR_ATTENDANCE = "attendance_percentage";
+    public static final String ATTR_PARTICIPATION = "class_participation";
+
+    private StudentSchema() {}
+
+    // Feature index (CompiledTree.FEATURE_*) of an attribute name, or -1 if the tree cannot split on it.
+    public static int featureOf(String attributeName) {
+        return switch (attributeName) {
+            case ATTR_STUDY_HOURS -> CompiledTree.FEATURE_STUDY_HOURS;
+            case ATTR_ATTENDANCE -> CompiledTree.FEATURE_ATTENDANCE;
+            case ATTR_PARTICIPATION -> CompiledTree.FEATURE_PARTICIPATION;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,288 @@
+package edu.spp.predict;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Emits a class file whose leafFor(double, double, double) is the tree unrolled into nested
+// "if (x <= t)" branches, and defines it as a hidden class next to this one.
+final class TreeClassGenerator {
+
+    private static final String CLASS_NAME = "edu/spp/predict/GeneratedTree";
+    private static final int CLASS_VERSION = 61;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int DCMPG = 0x98;
+    private static final int IFGT = 0x9d;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+
+    private static final int MAX_CODE_LENGTH = 65_535;
+
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private final List<Integer> branchTargets = new ArrayList<>();
+    private final List<int[]> branchPatches = new ArrayList<>();
+    private final CompiledTree tree;
+
+    private TreeClassGenerator(CompiledTree tree) {
+        this.tree = tree;
+    }
+
+    static LeafFunction define(CompiledTree tree) throws Throwable {
+        byte[] bytes = new TreeClassGenerator(tree).generate();
+        MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+        return (LeafFunction) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+    }
+
+    private byte[] generate() throws IOException {
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int iface = pool.classRef("edu/spp/predict/LeafFunction");
+        int superInit = pool.methodRef(superClass, "<init>", "()V");
+        int initName = pool.utf8("<init>");
+        int initDesc = pool.utf8("()V");
+        int leafName = pool.utf8("leafFor");
+        int leafDesc = pool.utf8("(DDD)I");
+        int codeAttr = pool.utf8("Code");
+        int stackMapAttr = pool.utf8("StackMapTable");
+
+        emitNode(tree.root());
+        if (code.size() > MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Tree is too large for a generated method: " + code.size() + " bytes.");
+        }
+        byte[] leafCode = code.toByteArray();
+        for (int[] patch : branchPatches) {
+            leafCode[patch[0]] = (byte) (patch[1] >> 8);
+            leafCode[patch[0] + 1] = (byte) patch[1];
+        }
+        byte[] stackMap = stackMapTable();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_VERSION);
+        pool.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(iface);
+        out.writeShort(0);
+
+        out.writeShort(2);
+
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(initName);
+        out.writeShort(initDesc);
+        out.writeShort(1);
+        byte[] initCode = {(byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (superInit >> 8), (byte) superInit, (byte) RETURN};
+        writeCode(out, codeAttr, 1, 1, initCode, -1, null);
+
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(leafName);
+        out.writeShort(leafDesc);
+        out.writeShort(1);
+        // this + three doubles taking two slots each
+        writeCode(out, codeAttr, 4, 7, leafCode, stackMapAttr, stackMap);
+
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeCode(
+            DataOutputStream out,
+            int codeAttr,
+            int maxStack,
+            int maxLocals,
+            byte[] body,
+            int stackMapAttr,
+            byte[] stackMap
+    ) throws IOException {
+        boolean hasStackMap = stackMap != null;
+        int length = 2 + 2 + 4 + body.length + 2 + 2 + (hasStackMap ? 6 + stackMap.length : 0);
+        out.writeShort(codeAttr);
+        out.writeInt(length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeShort(0);
+        out.writeShort(hasStackMap ? 1 : 0);
+        if (hasStackMap) {
+            out.writeShort(stackMapAttr);
+            out.writeInt(stackMap.length);
+            out.write(stackMap);
+        }
+    }
+
+    private void emitNode(int node) {
+        if (node < 0) {
+            pushInt(~node);
+            code.write(IRETURN);
+            return;
+        }
+
+        code.write(DLOAD);
+        code.write(1 + 2 * tree.feature(node));
+        int constant = pool.doubleConstant(tree.threshold(node));
+        code.write(LDC2_W);
+        code.write(constant >> 8);
+        code.write(constant);
+        // dcmpg yields 1 for NaN, so a missing value goes right exactly like "v <= t" being false.
+        code.write(DCMPG);
+
+        int branchAt = code.size();
+        code.write(IFGT);
+        code.write(0);
+        code.write(0);
+
+        emitNode(tree.left(node));
+
+        int target = code.size();
+        int offset = target - branchAt;
+        if (offset > Short.MAX_VALUE) {
+            throw new IllegalStateException("Tree is too large for a generated method: branch offset " + offset + ".");
+        }
+        branchPatches.add(new int[] {branchAt + 1, offset});
+        branchTargets.add(target);
+
+        emitNode(tree.right(node));
+    }
+
+    private void pushInt(int value) {
+        if (value <= 5) {
+            code.write(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else if (value <= Short.MAX_VALUE) {
+            code.write(SIPUSH);
+            code.write(value >> 8);
+            code.write(value);
+        } else {
+            int constant = pool.intConstant(value);
+            code.write(LDC_W);
+            code.write(constant >> 8);
+            code.write(constant);
+        }
+    }
+
+    // Every branch target sees the method's initial locals and an empty stack, so each frame is a
+    // same_frame (or same_frame_extended once the delta no longer fits in the frame type byte).
+    private byte[] stackMapTable() throws IOException {
+        if (branchTargets.isEmpty()) return null;
+        List<Integer> targets = new ArrayList<>(branchTargets);
+        targets.sort(null);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(targets.size());
+        int previous = -1;
+        for (int target : targets) {
+            int delta = target - previous - 1;
+            if (delta <= 63) {
+                out.writeByte(delta);
+            } else {
+                out.writeByte(251);
+                out.writeShort(delta);
+            }
+            previous = target;
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<Object, Integer> entries = new HashMap<>();
+        private int next = 1;
+
+        int utf8(String s) {
+            return entries.computeIfAbsent("utf8:" + s, k -> add(1, o -> {
+                o.writeByte(1);
+                o.writeUTF(s);
+            }));
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entries.computeIfAbsent("class:" + internalName, k -> add(1, o -> {
+                o.writeByte(7);
+                o.writeShort(name);
+            }));
+        }
+
+        int methodRef(int owner, String name, String descriptor) {
+            int nameIdx = utf8(name);
+            int descIdx = utf8(descriptor);
+            int nameAndType = entries.computeIfAbsent("nat:" + name + descriptor, k -> add(1, o -> {
+                o.writeByte(12);
+                o.writeShort(nameIdx);
+                o.writeShort(descIdx);
+            }));
+            return entries.computeIfAbsent("method:" + owner + ":" + nameAndType, k -> add(1, o -> {
+                o.writeByte(10);
+                o.writeShort(owner);
+                o.writeShort(nameAndType);
+            }));
+        }
+
+        int doubleConstant(double value) {
+            return entries.computeIfAbsent("double:" + Double.doubleToRawLongBits(value), k -> add(2, o -> {
+                o.writeByte(6);
+                o.writeDouble(value);
+            }));
+        }
+
+        int intConstant(int value) {
+            return entries.computeIfAbsent("int:" + value, k -> add(1, o -> {
+                o.writeByte(3);
+                o.writeInt(value);
+            }));
+        }
+
+        private int add(int slots, EntryWriter writer) {
+            int index = next;
+            next += slots;
+            try {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(next);
+            bytes.writeTo(target);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+}
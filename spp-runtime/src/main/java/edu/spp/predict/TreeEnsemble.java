@@ -0,0 +1,174 @@
+package edu.spp.predict;
+
+import java.util.List;
+
+// Pass/fail trees scored together the way Weka's Bagging inside a CostSensitiveClassifier would: the
+// members' leaf probabilities (before their cost rule) are averaged and the cost rule is applied once to
+// the average. Deciding per tree and counting votes instead flips more predictions between retrains,
+// since every member sits near its own cost threshold in the same places.
+//
+// The member trees are copied into one set of node arrays (feature, threshold, left, right, with every
+// tree's references shifted by its offset), so a row walks all trees in one loop over shared arrays.
+// As a LeafFunction the "leaf" is the average PASS probability rounded to 1/RESOLUTION, which is all the
+// prediction depends on: label, confidence, the slider lookup table and the cache work on it unchanged,
+// and distribution() rounds the same way so the reference agrees with the compiled walk.
+public final class TreeEnsemble implements LeafFunction {
+
+    public static final int RESOLUTION = 1000;
+
+    private final TreeModel[] members;
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] leafPass;
+    private final byte[] outcomeClass;
+    private final double[] outcomeConfidence;
+
+    public TreeEnsemble(List<TreeModel> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("An ensemble needs at least one tree.");
+        }
+        TreeModel first = members.get(0);
+        if (first.classLabels().length != 2) {
+            throw new IllegalArgumentException("Ensembles score two classes, the model has " + first.classLabels().length);
+        }
+        int nodes = 0;
+        int leaves = 0;
+        for (TreeModel m : members) {
+            for (int f = 0; f < TreeModel.NUM_FEATURES; f++) {
+                if (!m.featureName(f).equals(first.featureName(f))) {
+                    throw new IllegalArgumentException("Ensemble members disagree on feature " + f + ": " + m.featureName(f));
+                }
+            }
+            if (!List.of(m.classLabels()).equals(List.of(first.classLabels()))) {
+                throw new IllegalArgumentException("Ensemble members disagree on the class labels.");
+            }
+            if (!sameCosts(m, first)) {
+                throw new IllegalArgumentException("Ensemble members disagree on the cost matrix.");
+            }
+            nodes += m.tree().numNodes();
+            leaves += m.tree().numLeaves();
+        }
+
+        this.members = members.toArray(new TreeModel[0]);
+        this.roots = new int[this.members.length];
+        this.feature = new int[nodes];
+        this.threshold = new double[nodes];
+        this.left = new int[nodes];
+        this.right = new int[nodes];
+        this.leafPass = new double[leaves];
+        int nodeBase = 0;
+        int leafBase = 0;
+        for (int t = 0; t < this.members.length; t++) {
+            TreeModel member = this.members[t];
+            CompiledTree tree = member.tree();
+            roots[t] = shift(tree.root(), nodeBase, leafBase);
+            for (int n = 0; n < tree.numNodes(); n++) {
+                feature[nodeBase + n] = tree.feature(n);
+                threshold[nodeBase + n] = tree.threshold(n);
+                left[nodeBase + n] = shift(tree.left(n), nodeBase, leafBase);
+                right[nodeBase + n] = shift(tree.right(n), nodeBase, leafBase);
+            }
+            for (int leaf = 0; leaf < tree.numLeaves(); leaf++) {
+                leafPass[leafBase + leaf] = member.leafProbability(leaf)[1];
+            }
+            nodeBase += tree.numNodes();
+            leafBase += tree.numLeaves();
+        }
+
+        this.outcomeClass = new byte[RESOLUTION + 1];
+        this.outcomeConfidence = new double[RESOLUTION + 1];
+        for (int outcome = 0; outcome <= RESOLUTION; outcome++) {
+            double pass = (double) outcome / RESOLUTION;
+            double[] dist = first.applyCostRule(new double[] {1.0 - pass, pass});
+            int c = dist[1] > dist[0] ? 1 : 0;
+            outcomeClass[outcome] = (byte) c;
+            outcomeConfidence[outcome] = dist[c];
+        }
+    }
+
+    private static int shift(int ref, int nodeBase, int leafBase) {
+        return ref >= 0 ? ref + nodeBase : ~(~ref + leafBase);
+    }
+
+    private static boolean sameCosts(TreeModel a, TreeModel b) {
+        if (a.hasCostMatrix() != b.hasCostMatrix()) return false;
+        if (!a.hasCostMatrix()) return true;
+        for (int actual = 0; actual < 2; actual++) {
+            for (int predicted = 0; predicted < 2; predicted++) {
+                if (a.cost(actual, predicted) != b.cost(actual, predicted)) return false;
+            }
+        }
+        return true;
+    }
+
+    // The rounded average PASS probability, from 0 to RESOLUTION. Inputs must not be missing; see
+    // distribution() for those.
+    @Override
+    public int leafFor(double studyHours, double attendance, double participation) {
+        double pass = 0.0;
+        for (int root : roots) {
+            int node = root;
+            while (node >= 0) {
+                double v = switch (feature[node]) {
+                    case CompiledTree.FEATURE_STUDY_HOURS -> studyHours;
+                    case CompiledTree.FEATURE_ATTENDANCE -> attendance;
+                    default -> participation;
+                };
+                node = v <= threshold[node] ? left[node] : right[node];
+            }
+            pass += leafPass[~node];
+        }
+        return outcome(pass);
+    }
+
+    private int outcome(double passSum) {
+        return (int) Math.round(passSum / members.length * RESOLUTION);
+    }
+
+    public int classIndex(int outcome) {
+        return outcomeClass[outcome];
+    }
+
+    public String label(int outcome) {
+        return classLabels()[outcomeClass[outcome]];
+    }
+
+    public double confidence(int outcome) {
+        return outcomeConfidence[outcome];
+    }
+
+    // With missing values every member mixes its branches as TreeModel does, then the same average and
+    // rounding as leafFor(), so both agree whenever nothing is missing.
+    public double[] distribution(double studyHours, double attendance, double participation) {
+        double pass = 0.0;
+        for (TreeModel m : members) pass += m.probabilities(studyHours, attendance, participation)[1];
+        int outcome = outcome(pass);
+        double[] out = new double[2];
+        out[outcomeClass[outcome]] = outcomeConfidence[outcome];
+        out[1 - outcomeClass[outcome]] = 1.0 - outcomeConfidence[outcome];
+        return out;
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    public TreeModel member(int i) {
+        return members[i];
+    }
+
+    public String[] classLabels() {
+        return members[0].classLabels();
+    }
+
+    public int numNodes() {
+        return feature.length;
+    }
+
+    public int numLeaves() {
+        return leafPass.length;
+    }
+}
@@ -0,0 +1,130 @@
+package edu.spp.predict;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Binary form of a TreeEnsemble, laid out like TreeModelFile. Little-endian, fixed 16-byte header:
+//
+//   magic "SPPE" | u16 format version | u16 flags (none yet) | u32 payload length | u32 CRC32 of the payload
+//
+//   payload: u32 tree count, then per tree a u32 length and the tree as a complete TreeModelFile
+//
+// Each member keeps its own header and checksum, so the trees decode exactly as single models do.
+public final class TreeEnsembleFile {
+
+    public static final int MAGIC = 0x45505053; // "SPPE" read as a little-endian int
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+
+    private static final int MAX_TREES = 4096;
+
+    private TreeEnsembleFile() {}
+
+    public static byte[] encode(TreeEnsemble ensemble) {
+        byte[][] members = new byte[ensemble.size()][];
+        int size = 4;
+        for (int t = 0; t < members.length; t++) {
+            members[t] = TreeModelFile.encode(ensemble.member(t));
+            size += 4 + members[t].length;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        payload.putInt(members.length);
+        for (byte[] b : members) {
+            payload.putInt(b.length);
+            payload.put(b);
+        }
+
+        byte[] body = payload.array();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + body.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) FORMAT_VERSION);
+        out.putShort((short) 0);
+        out.putInt(body.length);
+        out.putInt((int) crc.getValue());
+        out.put(body);
+        return out.array();
+    }
+
+    public static TreeEnsemble read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Not an ensemble model file: " + file);
+            }
+            // Same as TreeModelFile.read: no mapping, so ModelIO can still swap the file in on Windows.
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file or end of file
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalStateException("Truncated while reading: " + file);
+            }
+            return decode(buffer.flip());
+        }
+    }
+
+    // True if the file starts with the ensemble magic; says nothing about whether it is intact.
+    public static boolean isEnsembleFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+                // keep reading until four bytes or end of file
+            }
+            return head.position() == 4 && head.getInt(0) == MAGIC;
+        }
+    }
+
+    public static TreeEnsemble decode(ByteBuffer source) {
+        ByteBuffer in = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IllegalStateException("Not an ensemble model file.");
+        }
+        int version = Short.toUnsignedInt(in.getShort());
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported ensemble model version " + version + ", expected " + FORMAT_VERSION);
+        }
+        in.getShort();
+        int length = in.getInt();
+        int expectedCrc = in.getInt();
+        if (length < 0 || length != in.remaining()) {
+            throw new IllegalStateException("Ensemble model is truncated: payload " + length + " bytes, file has " + in.remaining());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IllegalStateException("Ensemble model checksum mismatch.");
+        }
+
+        try {
+            int count = in.getInt();
+            if (count < 1 || count > MAX_TREES) throw new IllegalStateException("Implausible tree count: " + count);
+            List<TreeModel> members = new ArrayList<>(count);
+            for (int t = 0; t < count; t++) {
+                int size = in.getInt();
+                if (size < 0 || size > in.remaining()) {
+                    throw new IllegalStateException("Tree " + t + " runs past the end of the file.");
+                }
+                ByteBuffer member = in.slice(in.position(), size).order(ByteOrder.LITTLE_ENDIAN);
+                in.position(in.position() + size);
+                members.add(TreeModelFile.decode(member));
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalStateException("Ensemble model has " + in.remaining() + " unexpected trailing bytes.");
+            }
+            return new TreeEnsemble(members);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt ensemble model: " + e.getMessage(), e);
+        }
+    }
+}
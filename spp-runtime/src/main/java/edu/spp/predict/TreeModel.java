@@ -0,0 +1,153 @@
+package edu.spp.predict;
+
+import java.util.Arrays;
+
+// Everything inference and explanation need from a trained cost-sensitive J48, without Weka: the
+// compiled tree, the schema it was trained on, and the extra statistics needed to reproduce how J48
+// scores rows with missing values.
+public final class TreeModel {
+
+    public static final int NUM_FEATURES = 3;
+
+    private final String[] featureNames;
+    private final String className;
+    private final CompiledTree tree;
+    // Per inner node: share of the training weight that went left and right. J48 sends a missing value
+    // down both branches with these weights.
+    private final double[] leftWeight;
+    private final double[] rightWeight;
+    // Per leaf, flattened: class probabilities before the cost rule (Laplace-corrected if the tree was).
+    private final double[] leafProbability;
+    // costMatrix[actual][predicted]; null when the model outputs its probabilities directly.
+    private final double[][] costMatrix;
+
+    public TreeModel(
+            String[] featureNames,
+            String className,
+            CompiledTree tree,
+            double[] leftWeight,
+            double[] rightWeight,
+            double[] leafProbability,
+            double[][] costMatrix
+    ) {
+        int numClasses = tree.classLabels().length;
+        if (featureNames.length != NUM_FEATURES) {
+            throw new IllegalArgumentException("Expected " + NUM_FEATURES + " feature names, got " + featureNames.length);
+        }
+        if (leftWeight.length != tree.numNodes() || rightWeight.length != tree.numNodes()) {
+            throw new IllegalArgumentException("Expected one branch weight per node.");
+        }
+        if (leafProbability.length != tree.numLeaves() * numClasses) {
+            throw new IllegalArgumentException("Leaf probabilities do not match the number of leaves and classes.");
+        }
+        if (costMatrix != null) {
+            if (costMatrix.length != numClasses) throw new IllegalArgumentException("Cost matrix must be square over the classes.");
+            for (double[] row : costMatrix) {
+                if (row.length != numClasses) throw new IllegalArgumentException("Cost matrix must be square over the classes.");
+            }
+        }
+        this.featureNames = featureNames.clone();
+        this.className = className;
+        this.tree = tree;
+        this.leftWeight = leftWeight.clone();
+        this.rightWeight = rightWeight.clone();
+        this.leafProbability = leafProbability.clone();
+        this.costMatrix = costMatrix == null ? null : Arrays.stream(costMatrix).map(double[]::clone).toArray(double[][]::new);
+    }
+
+    public CompiledTree tree() {
+        return tree;
+    }
+
+    public String featureName(int feature) {
+        return featureNames[feature];
+    }
+
+    public String[] featureNames() {
+        return featureNames.clone();
+    }
+
+    public String className() {
+        return className;
+    }
+
+    public String[] classLabels() {
+        return tree.classLabels();
+    }
+
+    public double leftWeight(int node) {
+        return leftWeight[node];
+    }
+
+    public double rightWeight(int node) {
+        return rightWeight[node];
+    }
+
+    public double[] leafProbability(int leaf) {
+        int k = tree.classLabels().length;
+        return Arrays.copyOfRange(leafProbability, leaf * k, leaf * k + k);
+    }
+
+    public boolean hasCostMatrix() {
+        return costMatrix != null;
+    }
+
+    public double cost(int actual, int predicted) {
+        return costMatrix[actual][predicted];
+    }
+
+    // Same output as the Weka model it was exported from, missing values (NaN) included.
+    public double[] distribution(double studyHours, double attendance, double participation) {
+        if (!Double.isNaN(studyHours) && !Double.isNaN(attendance) && !Double.isNaN(participation)) {
+            return tree.distribution(tree.leafFor(studyHours, attendance, participation));
+        }
+        return applyCostRule(probabilities(studyHours, attendance, participation));
+    }
+
+    // Class probabilities before the cost rule: the leaf's, or for missing values the branches mixed by
+    // their training weights.
+    public double[] probabilities(double studyHours, double attendance, double participation) {
+        double[] probs = new double[tree.classLabels().length];
+        accumulate(tree.root(), 1.0, studyHours, attendance, participation, probs);
+        return probs;
+    }
+
+    // Expected cost of each decision, then all weight on the cheapest (first one on ties). Without a
+    // cost matrix the probabilities are the distribution.
+    public double[] applyCostRule(double[] probs) {
+        if (costMatrix == null) return probs;
+        int k = probs.length;
+        int best = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int predicted = 0; predicted < k; predicted++) {
+            double cost = 0.0;
+            for (int actual = 0; actual < k; actual++) cost += probs[actual] * costMatrix[actual][predicted];
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = predicted;
+            }
+        }
+        double[] out = new double[k];
+        out[best] = 1.0;
+        return out;
+    }
+
+    private void accumulate(int node, double weight, double h, double a, double p, double[] probs) {
+        if (node < 0) {
+            int base = ~node * probs.length;
+            for (int c = 0; c < probs.length; c++) probs[c] += weight * leafProbability[base + c];
+            return;
+        }
+        double v = switch (tree.feature(node)) {
+            case CompiledTree.FEATURE_STUDY_HOURS -> h;
+            case CompiledTree.FEATURE_ATTENDANCE -> a;
+            default -> p;
+        };
+        if (Double.isNaN(v)) {
+            accumulate(tree.left(node), weight * leftWeight[node], h, a, p, probs);
+            accumulate(tree.right(node), weight * rightWeight[node], h, a, p, probs);
+        } else {
+            accumulate(v <= tree.threshold(node) ? tree.left(node) : tree.right(node), weight, h, a, p, probs);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package edu.spp.predict;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Binary form of a TreeModel. Little-endian, fixed 16-byte header followed by the payload:
+//
+//   magic "SPPM" | u16 format version | u16 flags | u32 payload length | u32 CRC32 of the payload
+//
+//   payload: feature names, class attribute name, class labels, cost matrix (if flag set),
+//            root, node columns (feature u8, threshold f64, left i32, right i32, left/right weight f64),
+//            leaf columns (output distribution f64 x k, probabilities before the cost rule f64 x k)
+//
+// Strings are a u16 byte length plus UTF-8. Readers reject other versions instead of guessing.
+public final class TreeModelFile {
+
+    public static final int MAGIC = 0x4D505053; // "SPPM" read as a little-endian int
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+
+    private static final int FLAG_COST_MATRIX = 1;
+    private static final int MAX_NODES = 1 << 20;
+
+    private TreeModelFile() {}
+
+    public static byte[] encode(TreeModel model) {
+        CompiledTree tree = model.tree();
+        String[] labels = tree.classLabels();
+        int k = labels.length;
+        int nodes = tree.numNodes();
+        int leaves = tree.numLeaves();
+
+        byte[][] names = new byte[TreeModel.NUM_FEATURES][];
+        for (int f = 0; f < names.length; f++) names[f] = utf8(model.featureName(f));
+        byte[] className = utf8(model.className());
+        byte[][] labelBytes = new byte[k][];
+        for (int c = 0; c < k; c++) labelBytes[c] = utf8(labels[c]);
+
+        int size = 0;
+        for (byte[] b : names) size += 2 + b.length;
+        size += 2 + className.length;
+        size += 2;
+        for (byte[] b : labelBytes) size += 2 + b.length;
+        if (model.hasCostMatrix()) size += k * k * 8;
+        size += 4 + 4 + nodes * (1 + 8 + 4 + 4 + 8 + 8);
+        size += 4 + leaves * k * 16;
+
+        ByteBuffer payload = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] b : names) putString(payload, b);
+        putString(payload, className);
+        payload.putShort((short) k);
+        for (byte[] b : labelBytes) putString(payload, b);
+        if (model.hasCostMatrix()) {
+            for (int actual = 0; actual < k; actual++) {
+                for (int predicted = 0; predicted < k; predicted++) payload.putDouble(model.cost(actual, predicted));
+            }
+        }
+        payload.putInt(tree.root());
+        payload.putInt(nodes);
+        for (int n = 0; n < nodes; n++) payload.put((byte) tree.feature(n));
+        for (int n = 0; n < nodes; n++) payload.putDouble(tree.threshold(n));
+        for (int n = 0; n < nodes; n++) payload.putInt(tree.left(n));
+        for (int n = 0; n < nodes; n++) payload.putInt(tree.right(n));
+        for (int n = 0; n < nodes; n++) payload.putDouble(model.leftWeight(n));
+        for (int n = 0; n < nodes; n++) payload.putDouble(model.rightWeight(n));
+        payload.putInt(leaves);
+        for (int leaf = 0; leaf < leaves; leaf++) {
+            for (double v : tree.distribution(leaf)) payload.putDouble(v);
+        }
+        for (int leaf = 0; leaf < leaves; leaf++) {
+            for (double v : model.leafProbability(leaf)) payload.putDouble(v);
+        }
+
+        byte[] body = payload.array();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + body.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) FORMAT_VERSION);
+        out.putShort((short) (model.hasCostMatrix() ? FLAG_COST_MATRIX : 0));
+        out.putInt(body.length);
+        out.putInt((int) crc.getValue());
+        out.put(body);
+        return out.array();
+    }
+
+    public static TreeModel read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Not a compact model file: " + file);
+            }
+            // Read onto the heap rather than mapping: a live mapping keeps Windows from replacing the file.
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file or end of file
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalStateException("Truncated while reading: " + file);
+            }
+            return decode(buffer.flip());
+        }
+    }
+
+    // True if the file starts with the compact-format magic; says nothing about whether it is intact.
+    public static boolean isTreeModelFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+                // keep reading until four bytes or end of file
+            }
+            return head.position() == 4 && head.getInt(0) == MAGIC;
+        }
+    }
+
+    public static TreeModel decode(ByteBuffer source) {
+        ByteBuffer in = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a compact model file.");
+        }
+        int version = Short.toUnsignedInt(in.getShort());
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported compact model version " + version + ", expected " + FORMAT_VERSION);
+        }
+        int flags = Short.toUnsignedInt(in.getShort());
+        int length = in.getInt();
+        int expectedCrc = in.getInt();
+        if (length < 0 || length != in.remaining()) {
+            throw new IllegalStateException("Compact model is truncated: payload " + length + " bytes, file has " + in.remaining());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(in.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IllegalStateException("Compact model checksum mismatch.");
+        }
+
+        try {
+            String[] featureNames = new String[TreeModel.NUM_FEATURES];
+            for (int f = 0; f < featureNames.length; f++) featureNames[f] = getString(in);
+            String className = getString(in);
+            int k = Short.toUnsignedInt(in.getShort());
+            String[] labels = new String[k];
+            for (int c = 0; c < k; c++) labels[c] = getString(in);
+            double[][] costMatrix = null;
+            if ((flags & FLAG_COST_MATRIX) != 0) {
+                costMatrix = new double[k][k];
+                for (int actual = 0; actual < k; actual++) {
+                    for (int predicted = 0; predicted < k; predicted++) costMatrix[actual][predicted] = in.getDouble();
+                }
+            }
+
+            int root = in.getInt();
+            int nodes = in.getInt();
+            if (nodes < 0 || nodes > MAX_NODES) throw new IllegalStateException("Implausible node count: " + nodes);
+            int[] feature = new int[nodes];
+            double[] threshold = new double[nodes];
+            int[] left = new int[nodes];
+            int[] right = new int[nodes];
+            double[] leftWeight = new double[nodes];
+            double[] rightWeight = new double[nodes];
+            for (int n = 0; n < nodes; n++) feature[n] = Byte.toUnsignedInt(in.get());
+            for (int n = 0; n < nodes; n++) threshold[n] = in.getDouble();
+            for (int n = 0; n < nodes; n++) left[n] = in.getInt();
+            for (int n = 0; n < nodes; n++) right[n] = in.getInt();
+            for (int n = 0; n < nodes; n++) leftWeight[n] = in.getDouble();
+            for (int n = 0; n < nodes; n++) rightWeight[n] = in.getDouble();
+
+            int leaves = in.getInt();
+            if (leaves < 1 || leaves > MAX_NODES + 1) throw new IllegalStateException("Implausible leaf count: " + leaves);
+            double[] leafDistribution = new double[leaves * k];
+            double[] leafProbability = new double[leaves * k];
+            for (int i = 0; i < leafDistribution.length; i++) leafDistribution[i] = in.getDouble();
+            for (int i = 0; i < leafProbability.length; i++) leafProbability[i] = in.getDouble();
+            if (in.hasRemaining()) {
+                throw new IllegalStateException("Compact model has " + in.remaining() + " unexpected trailing bytes.");
+            }
+
+            CompiledTree tree = new CompiledTree(root, feature, threshold, left, right, labels, leafDistribution);
+            return new TreeModel(featureNames, className, tree, leftWeight, rightWeight, leafProbability, costMatrix);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt compact model: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length > 0xFFFF) throw new IllegalArgumentException("Name too long for the compact format: " + s);
+        return b;
+    }
+
+    private static void putString(ByteBuffer out, byte[] b) {
+        out.putShort((short) b.length);
+        out.put(b);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] b = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package edu.spp.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonTest {
+
+    @Test
+    void parsesTheRequestShapes() {
+        Object value = Json.parse(" {\"studentId\": 7, \"weeklySelfStudyHours\": 12.5,\n"
+                + "\"attendancePercentage\": -1e2, \"ok\": true, \"no\": false, \"none\": null,"
+                + " \"students\": [ {}, [], \"x\" ] } ");
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("studentId", 7.0);
+        expected.put("weeklySelfStudyHours", 12.5);
+        expected.put("attendancePercentage", -100.0);
+        expected.put("ok", Boolean.TRUE);
+        expected.put("no", Boolean.FALSE);
+        expected.put("none", null);
+        expected.put("students", List.of(Map.of(), List.of(), "x"));
+        assertEquals(expected, value);
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(((Map<?, ?>) value).keySet()));
+        assertNull(Json.parse("null"));
+    }
+
+    @Test
+    void decodesEscapes() {
+        assertEquals("a\"b\\c/d\b\f\n\r\t\u00e9", Json.parse("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e9\""));
+        assertEquals("plain", Json.parse("\"plain\""));
+    }
+
+    @Test
+    void escapesWhatItWrites() {
+        String text = "line \"one\"\n\ttab\\ \u0001";
+        String encoded = Json.appendString(new StringBuilder(), text).toString();
+        assertEquals("\"line \\\"one\\\"\\n\\ttab\\\\ \\u0001\"", encoded);
+        assertEquals(text, Json.parse(encoded));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String bad : List.of("", "{", "[1,", "{\"a\" 1}", "{a:1}", "[1 2]", "\"open", "\"\\q\"", "\"\\u12\"",
+                "tru", "nul", "1.2.3", "--1", "@", "{} {}", "[1,]")) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parse(bad), bad);
+            assertTrue(e.getMessage().startsWith("Invalid JSON at offset "), e.getMessage());
+        }
+    }
+
+    @Test
+    void limitsNesting() {
+        String deepest = "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH);
+        assertTrue(Json.parse(deepest) instanceof List);
+        for (String bad : List.of("[".repeat(Json.MAX_DEPTH + 1) + "]".repeat(Json.MAX_DEPTH + 1),
+                "[{\"a\":".repeat(10_000), "[".repeat(100_000))) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parse(bad));
+            assertTrue(e.getMessage().endsWith("nested deeper than " + Json.MAX_DEPTH + " levels"), e.getMessage());
+        }
+    }
+
+    @Test
+    void reportsTheOffset() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parse("[1, x]"));
+        assertEquals("Invalid JSON at offset 4: unexpected character 'x'", e.getMessage());
+        assertEquals(Arrays.asList(1.0, 2.0), Json.parse("[1,2]"));
+    }
+}
@@ -0,0 +1,82 @@
+package edu.spp.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.spp.predict.Fixtures;
+import edu.spp.predict.Predictor;
+import edu.spp.predict.TreeModelFile;
+
+class ScoreCsvTest {
+
+    private static final String HEADER = "student_id,weekly_self_study_hours,attendance_percentage,class_participation\n";
+
+    @TempDir
+    Path dir;
+
+    private Predictor predictor;
+
+    @BeforeEach
+    void loadModel() throws Exception {
+        Path model = dir.resolve("model.sppm");
+        Files.write(model, TreeModelFile.encode(Fixtures.modelA()));
+        predictor = Predictor.load(model.toFile(), Predictor.Backend.COMPILED);
+    }
+
+    @Test
+    void scoresEveryRowAndQuotesIdsThatNeedIt() throws Exception {
+        Path input = write(HEADER + "1,5,90,9\n\n\"2\",20,90,9\n3\"x,20,60,?\n");
+        Path output = dir.resolve("out.csv");
+        ScoreCsv.ScoreReport report = ScoreCsv.score(predictor, input, output, false, 2);
+        assertEquals(3, report.rows());
+        assertEquals(List.of(
+                "student_id,predicted_label,confidence",
+                "1,FAIL,1.0000",
+                "2,PASS,1.0000",
+                "\"3\"\"x\",FAIL,1.0000"), Files.readAllLines(output));
+    }
+
+    @Test
+    void rejectsCellsThatAreNotNumbers() throws Exception {
+        Path input = write(HEADER + "1,5,90,9\n2,12.5.1,90,9\n");
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ScoreCsv.score(predictor, input, dir.resolve("out.csv"), false, 1));
+        assertEquals("Not a number on line 3: \"12.5.1\"", e.getMessage());
+    }
+
+    // The output path is a directory, so the writer fails at once; the reader must stop early instead
+    // of parsing the whole input first, and nothing may be left waiting on a queue.
+    @Test
+    void aFailedWriterStopsThePipeline() throws Exception {
+        Path input = dir.resolve("large.csv");
+        try (Writer out = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            for (int i = 0; i < 200_000; i++) out.write(i + ",12.5,80,5\n");
+        }
+        Path output = Files.createDirectory(dir.resolve("out.csv"));
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            assertThrows(IOException.class, () -> ScoreCsv.score(predictor, input, output, true, 16));
+        });
+        assertTrue(Files.isDirectory(output));
+    }
+
+    private Path write(String csv) throws IOException {
+        Path input = dir.resolve("in.csv");
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+        return input;
+    }
+}
@@ -0,0 +1,51 @@
+package edu.spp.predict;
+
+// Small hand-built trees with the shape TreeCompiler exports, so runtime tests need neither Weka nor a
+// trained model file:
+//   study <= s ? leaf0 : (attendance <= a ? leaf1 : (participation <= p ? leaf2 : leaf3))
+public final class Fixtures {
+
+    static final String[] FEATURES = {
+            StudentSchema.ATTR_STUDY_HOURS, StudentSchema.ATTR_ATTENDANCE, StudentSchema.ATTR_PARTICIPATION
+    };
+    static final String[] CLASSES = {"FAIL", "PASS"};
+    static final double[][] COSTS = {{0, 5}, {1, 0}};
+
+    private static final double[] LEAF_PROBABILITY = {
+            0.90, 0.10,
+            0.70, 0.30,
+            0.20, 0.80,
+            0.05, 0.95
+    };
+
+    private Fixtures() {}
+
+    // Cost-sensitive, like the shipped model: every leaf distribution is all weight on one class.
+    public static TreeModel modelA() {
+        return tree(10.0, 70.0, 4.0, COSTS);
+    }
+
+    // No cost matrix and other thresholds, so many inputs get a different label or confidence than A.
+    static TreeModel modelB() {
+        return tree(15.0, 80.0, 6.0, null);
+    }
+
+    static TreeModel tree(double studyCut, double attendanceCut, double participationCut, double[][] costMatrix) {
+        int[] feature = {CompiledTree.FEATURE_STUDY_HOURS, CompiledTree.FEATURE_ATTENDANCE, CompiledTree.FEATURE_PARTICIPATION};
+        double[] threshold = {studyCut, attendanceCut, participationCut};
+        int[] left = {~0, ~1, ~2};
+        int[] right = {1, 2, ~3};
+        double[] leafDistribution = LEAF_PROBABILITY.clone();
+        if (costMatrix != null) {
+            for (int leaf = 0; leaf < 4; leaf++) {
+                // Predicting PASS costs P(FAIL) * 5, predicting FAIL costs P(PASS) * 1.
+                boolean pass = LEAF_PROBABILITY[2 * leaf] * costMatrix[0][1] < LEAF_PROBABILITY[2 * leaf + 1] * costMatrix[1][0];
+                leafDistribution[2 * leaf] = pass ? 0.0 : 1.0;
+                leafDistribution[2 * leaf + 1] = pass ? 1.0 : 0.0;
+            }
+        }
+        CompiledTree tree = new CompiledTree(0, feature, threshold, left, right, CLASSES, leafDistribution);
+        return new TreeModel(FEATURES, "pass_fail", tree,
+                new double[] {0.4, 0.5, 0.3}, new double[] {0.6, 0.5, 0.7}, LEAF_PROBABILITY, costMatrix);
+    }
+}
@@ -0,0 +1,44 @@
+package edu.spp.predict;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesAreWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) histogram.record(v * 10);
+        PredictionMetrics.StageLatency latency = histogram.snapshot();
+        assertEquals(100_000, latency.count());
+        assertEquals(1_000_000, latency.maxNanos());
+        assertNear(500_000, latency.p50Nanos());
+        assertNear(900_000, latency.p90Nanos());
+        assertNear(990_000, latency.p99Nanos());
+        assertNear(999_000, latency.p999Nanos());
+    }
+
+    @Test
+    void mergeAddsCountsAndKeepsTheLargerMaximum() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram both = new LatencyHistogram();
+        for (long v = 0; v < 5_000; v++) {
+            a.record(v);
+            both.record(v);
+            b.record(v * 7 + 3);
+            both.record(v * 7 + 3);
+        }
+        a.merge(b);
+        assertEquals(both.snapshot(), a.snapshot());
+
+        a.reset();
+        assertEquals(new PredictionMetrics.StageLatency(0, 0, 0, 0, 0, 0), a.snapshot());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.07, expected + " vs " + actual);
+    }
+}
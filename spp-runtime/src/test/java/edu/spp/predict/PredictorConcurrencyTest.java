@@ -0,0 +1,151 @@
+package edu.spp.predict;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Many threads score through one Predictor while another keeps swapping between two models. Every
+// single result must match one model exactly (label, confidence and explanation), and every batch must
+// come from one model as a whole.
+class PredictorConcurrencyTest {
+
+    private static final int INPUTS = 2_048;
+    private static final int BATCH_ROWS = 512;
+    private static final int THREADS = 4;
+    private static final long RUN_NANOS = 1_500_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(Predictor.Backend.class)
+    void resultsNeverMixTwoModels(Predictor.Backend backend) throws Exception {
+        PredictorOptions options = PredictorOptions.defaults()
+                .withBackend(backend)
+                .withSliderLookupTable(backend != Predictor.Backend.WEKA)
+                .withCache(1_024);
+        TreeModel modelA = Fixtures.modelA();
+        TreeModel modelB = Fixtures.modelB();
+        Path fileA = dir.resolve("a.sppm");
+        Path fileB = dir.resolve("b.sppm");
+        Files.write(fileA, TreeModelFile.encode(modelA));
+        Files.write(fileB, TreeModelFile.encode(modelB));
+
+        Random random = new Random(42);
+        StudentInput[] inputs = new StudentInput[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            double h = random.nextInt(401) / 10.0;
+            double a = 50.0 + random.nextInt(501) / 10.0;
+            double p = random.nextInt(101) / 10.0;
+            if (i % 97 == 0) h = Double.NaN;
+            inputs[i] = new StudentInput(i, h, a, p);
+        }
+
+        // Reference answers come from predictors that are never swapped while the test runs.
+        Expected expectedA = Expected.of(Predictor.load(fileA.toFile(), options), inputs);
+        Expected expectedB = Expected.of(Predictor.load(fileB.toFile(), options), inputs);
+        int differing = 0;
+        for (int i = 0; i < INPUTS; i++) {
+            if (!expectedA.labels[i].equals(expectedB.labels[i])) differing++;
+        }
+        assertTrue(differing > INPUTS / 20, "the two fixtures must disagree often enough to catch mixing");
+
+        Predictor predictor = Predictor.load(fileA.toFile(), options);
+        long deadline = System.nanoTime() + RUN_NANOS;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder mismatches = new LongAdder();
+        LongAdder mixedBatches = new LongAdder();
+        LongAdder swaps = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random seed = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    long ops = 0;
+                    while (System.nanoTime() < deadline) {
+                        if (++ops % 64 == 0) {
+                            int from = seed.nextInt(INPUTS - BATCH_ROWS);
+                            BatchPredictions batch = predictor.predictBatch(List.of(inputs).subList(from, from + BATCH_ROWS), false);
+                            boolean matchesA = true;
+                            boolean matchesB = true;
+                            for (int r = 0; r < BATCH_ROWS; r++) {
+                                matchesA &= batch.label(r).equals(expectedA.labels[from + r]);
+                                matchesB &= batch.label(r).equals(expectedB.labels[from + r]);
+                            }
+                            if (!matchesA && !matchesB) mixedBatches.increment();
+                            continue;
+                        }
+                        int i = seed.nextInt(INPUTS);
+                        PredictionResult result = predictor.predict(inputs[i]);
+                        boolean checkText = ops % 8 == 0;
+                        if (!expectedA.matches(i, result, checkText) && !expectedB.matches(i, result, checkText)) {
+                            mismatches.increment();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "stress-worker-" + t));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                boolean toB = true;
+                while (System.nanoTime() < deadline) {
+                    predictor.swap(toB ? modelB : modelA);
+                    swaps.increment();
+                    toB = !toB;
+                    Thread.sleep(2);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }, "stress-swapper"));
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        if (failure.get() != null) throw new AssertionError("A worker failed", failure.get());
+        assertTrue(swaps.sum() > 10, "the swapper must actually have swapped");
+        assertEquals(0, mismatches.sum(), "results matching neither model");
+        assertEquals(0, mixedBatches.sum(), "batches mixing both models");
+    }
+
+    private static final class Expected {
+        final String[] labels = new String[INPUTS];
+        final double[] confidences = new double[INPUTS];
+        final String[] explanations = new String[INPUTS];
+
+        static Expected of(Predictor predictor, StudentInput[] inputs) throws Exception {
+            Expected e = new Expected();
+            for (int i = 0; i < inputs.length; i++) {
+                PredictionResult r = predictor.predict(inputs[i]);
+                e.labels[i] = r.predictedLabel();
+                e.confidences[i] = r.confidence();
+                e.explanations[i] = r.explanation();
+            }
+            return e;
+        }
+
+        boolean matches(int i, PredictionResult r, boolean checkText) {
+            return labels[i].equals(r.predictedLabel())
+                    && confidences[i] == r.confidence()
+                    && (!checkText || explanations[i].equals(r.explanation()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package edu.spp.predict;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TreeEnsembleFileTest {
+
+    @TempDir
+    Path dir;
+
+    private static TreeEnsemble ensemble() {
+        return new TreeEnsemble(List.of(
+                Fixtures.modelA(),
+                Fixtures.tree(12.0, 75.0, 5.0, Fixtures.COSTS),
+                Fixtures.tree(8.0, 65.0, 3.0, Fixtures.COSTS)));
+    }
+
+    @Test
+    void roundTripKeepsEveryPrediction() throws Exception {
+        TreeEnsemble ensemble = ensemble();
+        Path file = dir.resolve("ensemble.sppm");
+        Files.write(file, TreeEnsembleFile.encode(ensemble));
+        assertTrue(TreeEnsembleFile.isEnsembleFile(file));
+        assertFalse(TreeModelFile.isTreeModelFile(file));
+
+        TreeEnsemble decoded = TreeEnsembleFile.read(file);
+        assertEquals(ensemble.size(), decoded.size());
+        for (double h = 0; h <= 40; h += 2.5) {
+            for (double a = 50; a <= 100; a += 5) {
+                for (double p = 0; p <= 10; p += 1) {
+                    assertEquals(ensemble.leafFor(h, a, p), decoded.leafFor(h, a, p));
+                    assertArrayEquals(ensemble.distribution(h, a, p), decoded.distribution(h, a, p));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsCorruptFiles() {
+        byte[] bytes = TreeEnsembleFile.encode(ensemble());
+        assertTrue(decodeError(Arrays.copyOf(bytes, bytes.length - 1)).getMessage().contains("truncated"));
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 5] ^= 0x10;
+        assertEquals("Ensemble model checksum mismatch.", decodeError(flipped).getMessage());
+
+        byte[] single = TreeModelFile.encode(Fixtures.modelA());
+        assertEquals("Not an ensemble model file.", decodeError(single).getMessage());
+    }
+
+    @Test
+    void rejectsImplausibleStructure() {
+        byte[] bytes = TreeEnsembleFile.encode(ensemble());
+        int payload = TreeEnsembleFile.HEADER_BYTES;
+
+        byte[] noTrees = bytes.clone();
+        ByteBuffer.wrap(noTrees).order(ByteOrder.LITTLE_ENDIAN).putInt(payload, 0);
+        assertTrue(decodeError(TreeModelFileTest.resealed(noTrees)).getMessage().startsWith("Implausible tree count"));
+
+        byte[] overlong = bytes.clone();
+        ByteBuffer.wrap(overlong).order(ByteOrder.LITTLE_ENDIAN).putInt(payload + 4, Integer.MAX_VALUE);
+        assertTrue(decodeError(TreeModelFileTest.resealed(overlong)).getMessage().contains("runs past the end"));
+
+        // A damaged member is reported even though the ensemble's own checksum matches.
+        byte[] member = bytes.clone();
+        member[payload + 8] ^= 1;
+        assertEquals("Not a compact model file.", decodeError(TreeModelFileTest.resealed(member)).getMessage());
+    }
+
+    private static IllegalStateException decodeError(byte[] bytes) {
+        return assertThrows(IllegalStateException.class, () -> TreeEnsembleFile.decode(ByteBuffer.wrap(bytes)));
+    }
+}
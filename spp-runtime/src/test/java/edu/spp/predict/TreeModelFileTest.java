@@ -0,0 +1,98 @@
+package edu.spp.predict;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TreeModelFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryPrediction() throws Exception {
+        for (TreeModel model : new TreeModel[] {Fixtures.modelA(), Fixtures.modelB()}) {
+            Path file = dir.resolve("model.sppm");
+            Files.write(file, TreeModelFile.encode(model));
+            assertTrue(TreeModelFile.isTreeModelFile(file));
+            assertFalse(TreeEnsembleFile.isEnsembleFile(file));
+
+            TreeModel decoded = TreeModelFile.read(file);
+            assertArrayEquals(model.featureNames(), decoded.featureNames());
+            assertArrayEquals(model.classLabels(), decoded.classLabels());
+            assertEquals(model.hasCostMatrix(), decoded.hasCostMatrix());
+            assertEquals(model.tree().numNodes(), decoded.tree().numNodes());
+            for (double h = 0; h <= 40; h += 2.5) {
+                for (double a = 50; a <= 100; a += 5) {
+                    for (double p = 0; p <= 10; p += 1) {
+                        assertArrayEquals(model.distribution(h, a, p), decoded.distribution(h, a, p));
+                    }
+                }
+            }
+            assertArrayEquals(model.distribution(Double.NaN, 75, 5), decoded.distribution(Double.NaN, 75, 5));
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        byte[] bytes = TreeModelFile.encode(Fixtures.modelA());
+        bytes[0] ^= 1;
+        assertEquals("Not a compact model file.", decodeError(bytes).getMessage());
+        assertThrows(IllegalStateException.class, () -> TreeModelFile.decode(ByteBuffer.allocate(3)));
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] bytes = TreeModelFile.encode(Fixtures.modelA());
+        bytes[4] = 99;
+        assertTrue(decodeError(bytes).getMessage().startsWith("Unsupported compact model version 99"));
+    }
+
+    @Test
+    void rejectsTruncationAndCorruption() {
+        byte[] bytes = TreeModelFile.encode(Fixtures.modelA());
+        assertTrue(decodeError(Arrays.copyOf(bytes, bytes.length - 1)).getMessage().contains("truncated"));
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 3] ^= 0x40;
+        assertEquals("Compact model checksum mismatch.", decodeError(flipped).getMessage());
+    }
+
+    // A payload that passes the checksum but does not describe a valid tree.
+    @Test
+    void rejectsStructurallyInvalidPayloads() {
+        byte[] bytes = TreeModelFile.encode(Fixtures.modelA());
+        byte[] trailing = Arrays.copyOf(bytes, bytes.length + 2);
+        assertTrue(decodeError(resealed(trailing)).getMessage().contains("unexpected trailing bytes"));
+
+        byte[] missingBytes = Arrays.copyOf(bytes, bytes.length - 8);
+        assertTrue(decodeError(resealed(missingBytes)).getMessage().startsWith("Corrupt compact model"));
+    }
+
+    private static IllegalStateException decodeError(byte[] bytes) {
+        return assertThrows(IllegalStateException.class, () -> TreeModelFile.decode(ByteBuffer.wrap(bytes)));
+    }
+
+    // Rewrites the header length and checksum for the payload as it now is.
+    static byte[] resealed(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int headerBytes = TreeModelFile.HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, headerBytes, bytes.length - headerBytes);
+        buffer.putInt(8, bytes.length - headerBytes);
+        buffer.putInt(12, (int) crc.getValue());
+        return bytes;
+    }
+}
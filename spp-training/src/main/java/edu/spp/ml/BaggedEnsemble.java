@@ -0,0 +1,116 @@
+package edu.spp.ml;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.spp.predict.TreeEnsemble;
+import edu.spp.predict.TreeModel;
+
+// Bagging: every tree is trained with the same settings on its own bootstrap sample (as many rows as the
+// training range, drawn with replacement), and the trees vote. The trees are independent, so each one is
+// a single task on a fixed pool: one bootstrap copy per busy thread is all the extra memory needed, and
+// training time drops with cores until there are fewer trees than threads.
+//
+// Tree t draws its sample from new Random(seed + t), so an ensemble is reproducible whatever the thread
+// count. Trees are trained with Weka's J48 and exported, or with HistogramTree on one thread each.
+public final class BaggedEnsemble {
+
+    private BaggedEnsemble() {}
+
+    public record Result(
+            TreeEnsemble ensemble,
+            boolean histogram,
+            int threads,
+            int[] leaves,
+            long wallNanos,
+            long cpuNanos
+    ) {
+        // CPU time of all trees over wall time: how many cores training kept busy on average.
+        public double parallelism() {
+            return wallNanos <= 0 ? 0.0 : (double) cpuNanos / wallNanos;
+        }
+
+        public String toHumanString() {
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (int l : leaves) {
+                min = Math.min(min, l);
+                max = Math.max(max, l);
+            }
+            return String.format(Locale.US,
+                    "Bagged ensemble: %d %s trees (%d-%d leaves), trained in %d ms on %d thread(s), %.1f cores busy on average",
+                    leaves.length, histogram ? "histogram" : "J48", min, max,
+                    wallNanos / 1_000_000L, threads, parallelism());
+        }
+    }
+
+    public static Result train(PassFailDataset data, int from, int to, Hyperparameters hyperparameters, int trees,
+            boolean histogram, int threads, long seed) throws Exception {
+        if (from < 0 || to > data.size() || from >= to) {
+            throw new IllegalArgumentException("Row range [" + from + ", " + to + ") outside 0.." + data.size() + " or empty");
+        }
+        if (trees < 1) {
+            throw new IllegalArgumentException("trees must be at least 1, got " + trees);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, trees), r -> {
+            Thread t = new Thread(r, "bagging-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Member>> futures = new ArrayList<>(trees);
+            for (int t = 0; t < trees; t++) {
+                long treeSeed = seed + t;
+                futures.add(pool.submit(() -> trainMember(data, from, to, hyperparameters, histogram, treeSeed)));
+            }
+            List<TreeModel> models = new ArrayList<>(trees);
+            int[] leaves = new int[trees];
+            long cpuNanos = 0;
+            for (int t = 0; t < trees; t++) {
+                Member member = futures.get(t).get();
+                models.add(member.model());
+                leaves[t] = member.model().tree().numLeaves();
+                cpuNanos += member.cpuNanos();
+            }
+            return new Result(new TreeEnsemble(models), histogram, Math.min(threads, trees), leaves,
+                    System.nanoTime() - start, cpuNanos);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private record Member(TreeModel model, long cpuNanos) {}
+
+    private static Member trainMember(PassFailDataset data, int from, int to, Hyperparameters hyperparameters,
+            boolean histogram, long seed) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long t0 = mx.getCurrentThreadCpuTime();
+        Random random = new Random(seed);
+        int n = to - from;
+        int[] rows = new int[n];
+        for (int i = 0; i < n; i++) rows[i] = from + random.nextInt(n);
+        PassFailDataset bag = data.rows(rows);
+        rows = null;
+
+        TreeModel model = histogram
+                ? HistogramTree.train(bag, 0, n, hyperparameters, 1).model()
+                : TreeCompiler.export(hyperparameters.train(bag.toInstances()), DataPreprocessor.buildPredictionHeader());
+        return new Member(model, mx.getCurrentThreadCpuTime() - t0);
+    }
+}
@@ -0,0 +1,231 @@
+package edu.spp.ml;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+// Stratified, optionally repeated, k-fold cross-validation with the folds trained and scored in
+// parallel. Each fold counts its own confusion matrix and cost while it scores, then merges them into
+// one shared Totals; nothing per-fold is kept apart from a few numbers for the fold table.
+public final class CrossValidation {
+
+    private CrossValidation() {}
+
+    public static Report run(Hyperparameters hyperparameters, Instances data, int folds, int repeats, int threads)
+            throws Exception {
+        if (folds < 2 || folds > data.numInstances()) {
+            throw new IllegalArgumentException("folds must be between 2 and the number of instances, got " + folds);
+        }
+        if (repeats < 1) {
+            throw new IllegalArgumentException("repeats must be at least 1, got " + repeats);
+        }
+        CostMatrix evaluationCost = Hyperparameters.DEFAULT.costMatrix();
+        Totals totals = new Totals(data.numClasses());
+
+        long start = System.nanoTime();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cross-validation-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Fold>> futures = new ArrayList<>(folds * repeats);
+            for (int repeat = 0; repeat < repeats; repeat++) {
+                Random random = new Random(42 + repeat);
+                Instances shuffled = new Instances(data);
+                shuffled.randomize(random);
+                shuffled.stratify(folds);
+                for (int fold = 0; fold < folds; fold++) {
+                    // Weka draws the fold split from random too, so build both halves here in order.
+                    Instances train = shuffled.trainCV(folds, fold, random);
+                    Instances test = shuffled.testCV(folds, fold);
+                    int r = repeat;
+                    int f = fold;
+                    futures.add(pool.submit(() ->
+                            runFold(r, f, hyperparameters, train, test, evaluationCost, totals)));
+                }
+            }
+            List<Fold> results = new ArrayList<>(futures.size());
+            for (Future<Fold> future : futures) {
+                results.add(future.get());
+            }
+            long wallNanos = System.nanoTime() - start;
+            results.sort(Comparator.comparingInt(Fold::repeat).thenComparingInt(Fold::fold));
+            return new Report(folds, repeats, threads, totals.confusion(), totals.weight(), totals.cost(),
+                    totals.accuracy().mean(), totals.accuracy().variance(),
+                    totals.costPerStudent().mean(), totals.costPerStudent().variance(),
+                    results, wallNanos);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static Fold runFold(int repeat, int fold, Hyperparameters hyperparameters, Instances train,
+            Instances test, CostMatrix evaluationCost, Totals totals) throws Exception {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long t0 = mx.getCurrentThreadCpuTime();
+        CostSensitiveClassifier model = hyperparameters.train(train);
+        long t1 = mx.getCurrentThreadCpuTime();
+
+        int k = test.numClasses();
+        double[][] confusion = new double[k][k];
+        double weight = 0.0;
+        double correct = 0.0;
+        double cost = 0.0;
+        for (int i = 0; i < test.numInstances(); i++) {
+            Instance row = test.instance(i);
+            if (row.classIsMissing()) continue;
+            int actual = (int) row.classValue();
+            int predicted = (int) model.classifyInstance(row);
+            double w = row.weight();
+            confusion[actual][predicted] += w;
+            weight += w;
+            if (actual == predicted) correct += w;
+            cost += w * evaluationCost.getElement(actual, predicted);
+        }
+        long t2 = mx.getCurrentThreadCpuTime();
+
+        Fold result = new Fold(repeat, fold, train.numInstances(), test.numInstances(),
+                100.0 * correct / weight, cost / weight, t1 - t0, t2 - t1);
+        totals.merge(confusion, weight, cost, result);
+        return result;
+    }
+
+    // Running sums over the folds merged so far.
+    private static final class Totals {
+        private final double[][] confusion;
+        private double weight;
+        private double cost;
+        private final Welford accuracy = new Welford();
+        private final Welford costPerStudent = new Welford();
+
+        Totals(int numClasses) {
+            this.confusion = new double[numClasses][numClasses];
+        }
+
+        synchronized void merge(double[][] foldConfusion, double foldWeight, double foldCost, Fold fold) {
+            for (int a = 0; a < confusion.length; a++) {
+                for (int p = 0; p < confusion.length; p++) {
+                    confusion[a][p] += foldConfusion[a][p];
+                }
+            }
+            weight += foldWeight;
+            cost += foldCost;
+            accuracy.add(fold.accuracyPct());
+            costPerStudent.add(fold.costPerStudent());
+        }
+
+        synchronized double[][] confusion() {
+            double[][] copy = new double[confusion.length][];
+            for (int a = 0; a < confusion.length; a++) copy[a] = confusion[a].clone();
+            return copy;
+        }
+
+        synchronized double weight() { return weight; }
+        synchronized double cost() { return cost; }
+        synchronized Welford accuracy() { return accuracy; }
+        synchronized Welford costPerStudent() { return costPerStudent; }
+    }
+
+    // Welford's online mean and (sample) variance.
+    private static final class Welford {
+        private long n;
+        private double mean;
+        private double m2;
+
+        void add(double x) {
+            n++;
+            double delta = x - mean;
+            mean += delta / n;
+            m2 += delta * (x - mean);
+        }
+
+        double mean() {
+            return mean;
+        }
+
+        double variance() {
+            return n > 1 ? m2 / (n - 1) : 0.0;
+        }
+    }
+
+    public record Fold(
+            int repeat,
+            int fold,
+            int trainInstances,
+            int testInstances,
+            double accuracyPct,
+            double costPerStudent,
+            long trainNanos,
+            long evaluateNanos
+    ) {
+        public String toHumanString() {
+            return String.format(Locale.US, "%2d %4d %7d %6d %8.2f%% %10.4f %9.1f %9.1f",
+                    repeat + 1, fold + 1, trainInstances, testInstances, accuracyPct, costPerStudent,
+                    trainNanos / 1e6, evaluateNanos / 1e6);
+        }
+    }
+
+    public record Report(
+            int folds,
+            int repeats,
+            int threads,
+            double[][] confusion,
+            double weight,
+            double totalCost,
+            double meanAccuracyPct,
+            double varianceAccuracyPct,
+            double meanCostPerStudent,
+            double varianceCostPerStudent,
+            List<Fold> foldResults,
+            long wallNanos
+    ) {
+        public double pooledAccuracyPct() {
+            double correct = 0.0;
+            for (int c = 0; c < confusion.length; c++) correct += confusion[c][c];
+            return 100.0 * correct / weight;
+        }
+
+        public String toHumanString() {
+            long cpuNanos = foldResults.stream().mapToLong(f -> f.trainNanos() + f.evaluateNanos()).sum();
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.US,
+                    "Cross-validation: %d x stratified %d-fold on %d threads (wall %.1f s, fold CPU %.1f s)\n",
+                    repeats, folds, threads, wallNanos / 1e9, cpuNanos / 1e9));
+            sb.append(String.format(Locale.US,
+                    "- Accuracy: mean=%.2f%%, variance=%.4f (sd=%.2f), pooled=%.2f%%\n",
+                    meanAccuracyPct, varianceAccuracyPct, Math.sqrt(varianceAccuracyPct), pooledAccuracyPct()));
+            sb.append(String.format(Locale.US,
+                    "- Cost per student (FAIL->PASS=5, PASS->FAIL=1): mean=%.4f, variance=%.6f (sd=%.4f), total=%.0f\n",
+                    meanCostPerStudent, varianceCostPerStudent, Math.sqrt(varianceCostPerStudent), totalCost));
+            sb.append("- Confusion matrix (rows = actual FAIL, PASS; columns = predicted FAIL, PASS):\n");
+            for (double[] row : confusion) {
+                sb.append("   ");
+                for (double v : row) sb.append(String.format(Locale.US, " %8.0f", v));
+                sb.append('\n');
+            }
+            sb.append("- Folds:\n");
+            sb.append("   rep fold   train   test accuracy cost/stud  train ms   eval ms\n");
+            for (Fold f : foldResults) {
+                sb.append("   ").append(f.toHumanString()).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.spp.ml;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import edu.spp.predict.StudentSchema;
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.CSVLoader;
+
+public final class DataPreprocessor {
+
+    public static final String RESOURCE_CSV = "/org/student_performance.csv";
+
+    public static final String ATTR_STUDY_HOURS = StudentSchema.ATTR_STUDY_HOURS;
+    public static final String ATTR_ATTENDANCE = StudentSchema.ATTR_ATTENDANCE;
+    public static final String ATTR_PARTICIPATION = StudentSchema.ATTR_PARTICIPATION;
+    public static final String ATTR_TOTAL_SCORE = "total_score";
+    public static final String ATTR_GRADE = "grade";
+
+    public static final String ATTR_TARGET = "pass_fail";
+
+    private DataPreprocessor() {}
+
+    public static Instances loadRawCsvFromResources() throws Exception {
+        try (InputStream in = DataPreprocessor.class.getResourceAsStream(RESOURCE_CSV)) {
+            if (in == null) {
+                throw new IllegalStateException("Dataset not found on classpath: " + RESOURCE_CSV);
+            }
+            CSVLoader loader = new CSVLoader();
+            loader.setSource(in);
+            Instances data = loader.getDataSet();
+            if (data == null || data.numInstances() == 0) {
+                throw new IllegalStateException("Loaded dataset is empty.");
+            }
+            return data;
+        }
+    }
+
+    public static StudentColumns loadColumnsFromResources(int threads) throws Exception {
+        return loadColumns(ByteBuffer.wrap(readResource()), threads);
+    }
+
+    static byte[] readResource() throws Exception {
+        try (InputStream in = DataPreprocessor.class.getResourceAsStream(RESOURCE_CSV)) {
+            if (in == null) {
+                throw new IllegalStateException("Dataset not found on classpath: " + RESOURCE_CSV);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    static StudentColumns loadColumns(ByteBuffer csv, int threads) throws Exception {
+        return requireRows(StudentCsvReader.read(csv, threads));
+    }
+
+    public static StudentColumns loadColumns(Path csv, int threads) throws Exception {
+        return requireRows(StudentCsvReader.read(csv, threads));
+    }
+
+    private static StudentColumns requireRows(StudentColumns columns) {
+        if (columns.size() == 0) {
+            throw new IllegalStateException("Loaded dataset is empty.");
+        }
+        return columns;
+    }
+
+    public static Instances buildPassFailTrainingData(StudentColumns raw) {
+        return PassFailDataset.from(raw).toInstances();
+    }
+
+    public static Instances buildPassFailTrainingData(Instances raw) {
+        return buildPassFailTrainingData(columnsOf(raw));
+    }
+
+    // Copies a CSVLoader table into columns. A total_score column that did not load as numeric is
+    // ignored in favour of grade, as it always was.
+    static StudentColumns columnsOf(Instances raw) {
+        int n = raw.numInstances();
+        int idxStudy = raw.attribute(ATTR_STUDY_HOURS).index();
+        int idxAttendance = raw.attribute(ATTR_ATTENDANCE).index();
+        int idxParticipation = raw.attribute(ATTR_PARTICIPATION).index();
+        Attribute scoreAttr = raw.attribute(ATTR_TOTAL_SCORE);
+        Attribute gradeAttr = raw.attribute(ATTR_GRADE);
+        boolean useScore = scoreAttr != null && scoreAttr.isNumeric();
+        boolean useGrade = !useScore && gradeAttr != null && gradeAttr.isNominal();
+
+        double[] study = new double[n];
+        double[] attendance = new double[n];
+        double[] participation = new double[n];
+        double[] score = useScore ? new double[n] : null;
+        byte[] grade = useGrade ? new byte[n] : null;
+        for (int i = 0; i < n; i++) {
+            Instance r = raw.instance(i);
+            study[i] = r.value(idxStudy);
+            attendance[i] = r.value(idxAttendance);
+            participation[i] = r.value(idxParticipation);
+            if (useScore) {
+                score[i] = r.value(scoreAttr);
+            } else if (useGrade && !r.isMissing(gradeAttr)) {
+                grade[i] = gradeLetter(r.stringValue(gradeAttr));
+            }
+        }
+        return new StudentColumns(n, study, attendance, participation, score, grade);
+    }
+
+    private static byte gradeLetter(String grade) {
+        String g = grade.trim().toUpperCase(Locale.ROOT);
+        return g.length() == 1 && g.charAt(0) >= 'A' && g.charAt(0) <= 'Z' ? (byte) g.charAt(0) : 0;
+    }
+
+    public static Instances buildPredictionHeader() {
+        Instances header = new Instances("student_performance_passfail_header", passFailAttributes(), 0);
+        header.setClassIndex(header.numAttributes() - 1);
+        return header;
+    }
+
+    static ArrayList<Attribute> passFailAttributes() {
+        ArrayList<Attribute> attrs = new ArrayList<>();
+        attrs.add(new Attribute(ATTR_STUDY_HOURS));
+        attrs.add(new Attribute(ATTR_ATTENDANCE));
+        attrs.add(new Attribute(ATTR_PARTICIPATION));
+        attrs.add(new Attribute(ATTR_TARGET, List.of("FAIL", "PASS")));
+        return attrs;
+    }
+}
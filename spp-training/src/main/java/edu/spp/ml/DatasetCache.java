@@ -0,0 +1,298 @@
+package edu.spp.ml;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+// Preprocessed training sets cached on disk, so a run on unchanged data skips CSV parsing and labelling.
+// One file per source in the cache directory, little-endian, a fixed 48-byte header then the columns:
+//
+//   magic "SPPD" | u16 format version | u16 flags (0) | u32 rows | u32 CRC32C of the payload | key (32 bytes)
+//
+//   payload: study hours f64 x rows, attendance f64 x rows, participation f64 x rows, label u8 x rows
+//
+// The key is SHA-256 over the source's content hash and PassFailDataset.LABEL_RULE, so editing the CSV
+// or the labelling rule changes it and the file is rebuilt. The content hash is SHA-256 over the SHA-256
+// of every 32 MB block of the source, which lets the blocks be hashed in parallel. The cache only ever
+// speeds a run up: a file that cannot be read or written is reported in the status and otherwise ignored.
+public final class DatasetCache {
+
+    public static final Path DEFAULT_DIR = Path.of("cache");
+
+    public static final int MAGIC = 0x44505053; // "SPPD" read as a little-endian int
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_BYTES = 48;
+
+    static final int HASH_BLOCK_BYTES = 32 << 20;
+    private static final int KEY_BYTES = 32;
+    private static final int MAP_BYTES = 1 << 30;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private DatasetCache() {}
+
+    // readNanos covers hashing plus either mapping the cache or parsing the CSV; labelNanos is 0 on a hit.
+    public record Loaded(PassFailDataset data, String source, String cacheStatus, long readNanos, long labelNanos) {}
+
+    // csv == null reads the dataset bundled on the classpath; cacheDir == null turns the cache off.
+    public static Loaded load(Path csv, Path cacheDir, int threads) throws Exception {
+        long t0 = System.nanoTime();
+        String source = csv == null ? "classpath:" + DataPreprocessor.RESOURCE_CSV : csv.toString();
+        byte[] resource = csv == null ? DataPreprocessor.readResource() : null;
+
+        Path file = null;
+        byte[] key = null;
+        String status = "off";
+        if (cacheDir != null) {
+            key = key(resource != null ? contentHash(resource) : contentHash(csv, threads));
+            long hashMillis = (System.nanoTime() - t0) / 1_000_000L;
+            file = cacheDir.resolve(fileName(csv));
+            try {
+                byte[] stored = storedKey(file);
+                if (stored == null) {
+                    status = "miss";
+                } else if (!Arrays.equals(stored, key)) {
+                    status = "stale (source or labelling rule changed)";
+                } else {
+                    PassFailDataset cached = read(file);
+                    return new Loaded(cached, source,
+                            String.format(Locale.US, "hit %s (source hashed in %d ms)", file, hashMillis),
+                            System.nanoTime() - t0, 0L);
+                }
+            } catch (IOException | IllegalStateException e) {
+                status = "unreadable (" + e.getMessage() + ")";
+            }
+        }
+
+        StudentColumns columns = resource != null
+                ? DataPreprocessor.loadColumns(ByteBuffer.wrap(resource), threads)
+                : DataPreprocessor.loadColumns(csv, threads);
+        long t1 = System.nanoTime();
+        PassFailDataset data = PassFailDataset.from(columns);
+        long t2 = System.nanoTime();
+        if (file != null) {
+            try {
+                write(file, key, data);
+                status += ", written to " + file;
+            } catch (IOException e) {
+                status += ", not written (" + e.getMessage() + ")";
+            }
+        }
+        return new Loaded(data, source, status, t1 - t0, t2 - t1);
+    }
+
+    private static String fileName(Path csv) throws Exception {
+        if (csv == null) return "classpath-student_performance.sppd";
+        String name = csv.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) name = name.substring(0, dot);
+        // Two exports with the same file name in different folders must not share a cache file.
+        byte[] where = sha256().digest(csv.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+        return name + "-" + HexFormat.of().formatHex(where, 0, 4) + ".sppd";
+    }
+
+    static byte[] key(byte[] contentHash) throws Exception {
+        MessageDigest digest = sha256();
+        digest.update(contentHash);
+        digest.update(PassFailDataset.LABEL_RULE.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    static byte[] contentHash(byte[] content) throws Exception {
+        ByteBuffer all = ByteBuffer.wrap(content);
+        return contentHash((from, to) -> all.slice((int) from, (int) (to - from)), content.length, 1);
+    }
+
+    static byte[] contentHash(Path file, int threads) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return contentHash((from, to) -> channel.map(FileChannel.MapMode.READ_ONLY, from, to - from),
+                    channel.size(), threads);
+        }
+    }
+
+    private interface Blocks {
+        ByteBuffer region(long from, long to) throws IOException;
+    }
+
+    private static byte[] contentHash(Blocks blocks, long size, int threads) throws Exception {
+        int count = (int) ((size + HASH_BLOCK_BYTES - 1) / HASH_BLOCK_BYTES);
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "dataset-hash-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<byte[]>> digests = new ArrayList<>(count);
+            for (int b = 0; b < count; b++) {
+                long from = (long) b * HASH_BLOCK_BYTES;
+                long to = Math.min(size, from + HASH_BLOCK_BYTES);
+                digests.add(pool.submit(() -> {
+                    MessageDigest digest = sha256();
+                    digest.update(blocks.region(from, to));
+                    return digest.digest();
+                }));
+            }
+            MessageDigest top = sha256();
+            top.update(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, size));
+            for (Future<byte[]> d : digests) top.update(d.get());
+            return top.digest();
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static MessageDigest sha256() throws Exception {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+    // The key of an intact-looking header, or null if there is no cache file.
+    static byte[] storedKey(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the whole header or end of file
+            }
+            header.flip();
+            checkHeader(header, channel.size());
+            byte[] key = new byte[KEY_BYTES];
+            header.get(16, key);
+            return key;
+        }
+    }
+
+    private static int checkHeader(ByteBuffer header, long fileSize) {
+        if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IllegalStateException("not a dataset cache file");
+        }
+        int version = Short.toUnsignedInt(header.getShort(4));
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("unsupported cache version " + version + ", expected " + FORMAT_VERSION);
+        }
+        int rows = header.getInt(8);
+        if (rows < 0 || fileSize != HEADER_BYTES + payloadBytes(rows)) {
+            throw new IllegalStateException("truncated: " + fileSize + " bytes for " + rows + " rows");
+        }
+        return rows;
+    }
+
+    private static long payloadBytes(int rows) {
+        return (3L * Double.BYTES + 1) * rows;
+    }
+
+    static PassFailDataset read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int rows = checkHeader(header, channel.size());
+            int expectedCrc = header.getInt(12);
+
+            CRC32C crc = new CRC32C();
+            long pos = HEADER_BYTES;
+            double[][] columns = new double[3][rows];
+            for (double[] column : columns) {
+                int done = 0;
+                while (done < rows) {
+                    int n = Math.min(rows - done, MAP_BYTES / Double.BYTES);
+                    ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, pos, (long) n * Double.BYTES)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    crc.update(segment.duplicate());
+                    segment.asDoubleBuffer().get(column, done, n);
+                    done += n;
+                    pos += (long) n * Double.BYTES;
+                }
+            }
+            byte[] label = new byte[rows];
+            int done = 0;
+            while (done < rows) {
+                int n = Math.min(rows - done, MAP_BYTES);
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, pos, n);
+                crc.update(segment.duplicate());
+                segment.get(label, done, n);
+                done += n;
+                pos += n;
+            }
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+            return PassFailDataset.of(columns[0], columns[1], columns[2], label);
+        }
+    }
+
+    // Writes next to the target and renames it into place, like ModelIO, so a concurrent run never maps a
+    // half-written file.
+    static void write(Path file, byte[] key, PassFailDataset data) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                channel.position(HEADER_BYTES);
+                for (double[] column : new double[][] {data.studyHours(), data.attendance(), data.participation()}) {
+                    for (int done = 0; done < data.size(); ) {
+                        int n = Math.min(data.size() - done, WRITE_BUFFER_BYTES / Double.BYTES);
+                        buffer.clear();
+                        buffer.asDoubleBuffer().put(column, done, n);
+                        buffer.limit(n * Double.BYTES);
+                        crc.update(buffer.duplicate());
+                        writeFully(channel, buffer);
+                        done += n;
+                    }
+                }
+                byte[] label = data.labels();
+                for (int done = 0; done < data.size(); ) {
+                    int n = Math.min(data.size() - done, WRITE_BUFFER_BYTES);
+                    ByteBuffer chunk = ByteBuffer.wrap(label, done, n);
+                    crc.update(chunk.duplicate());
+                    writeFully(channel, chunk);
+                    done += n;
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC);
+                header.putShort((short) FORMAT_VERSION);
+                header.putShort((short) 0);
+                header.putInt(data.size());
+                header.putInt((int) crc.getValue());
+                header.put(key);
+                header.flip();
+                channel.position(0);
+                writeFully(channel, header);
+            }
+            // temp files are created owner-only; the cache is no more secret than the CSV it came from
+            tmp.toFile().setReadable(true, false);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+}
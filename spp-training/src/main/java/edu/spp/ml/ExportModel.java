@@ -0,0 +1,28 @@
+package edu.spp.ml;
+
+import java.io.File;
+import java.util.Locale;
+
+import edu.spp.predict.TreeModel;
+import edu.spp.predict.TreeModelFile;
+
+// Converts a Java-serialized model into the compact format the runtime can load without Weka.
+//
+// Usage: ExportModel [input.model] [output.sppm]
+public final class ExportModel {
+
+    private ExportModel() {}
+
+    public static void main(String[] args) throws Exception {
+        File input = args.length > 0 ? new File(args[0]) : TrainModel.DEFAULT_MODEL_PATH;
+        File output = args.length > 1 ? new File(args[1]) : TrainModel.DEFAULT_COMPACT_MODEL_PATH;
+
+        TreeModel model = TreeCompiler.export(ModelIO.load(input), DataPreprocessor.buildPredictionHeader());
+        ModelIO.saveCompact(model, output);
+        TreeModelFile.read(output.toPath());
+
+        System.out.printf(Locale.US, "Exported %s (%,d bytes) -> %s (%,d bytes): %d nodes, %d leaves%n",
+                input.getPath(), input.length(), output.getPath(), output.length(),
+                model.tree().numNodes(), model.tree().numLeaves());
+    }
+}
@@ -0,0 +1,152 @@
+package edu.spp.ml;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import weka.classifiers.CostMatrix;
+import weka.classifiers.Evaluation;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instances;
+
+// Trains and scores candidate configurations on a pool of worker threads until the grid is done or
+// the time budget runs out. Candidates are tried in a shuffled order, so a budget that cuts the
+// search short still samples the whole grid rather than one corner of it.
+//
+// Every candidate is scored with the same cost matrix (the default 5:1), whatever cost ratio it was
+// trained with: the ratio is a knob for the learner, while the evaluation cost is what a wrong
+// prediction actually costs us, and only a fixed one makes the candidates comparable.
+public final class GridSearch {
+
+    public static final float[] CONFIDENCE_FACTORS = {0.05f, 0.10f, 0.15f, 0.25f, 0.35f, 0.50f};
+    public static final int[] MIN_NUM_OBJS = {2, 5, 10, 20, 40};
+    public static final boolean[] LAPLACE = {true, false};
+    public static final double[] FAIL_AS_PASS_COSTS = {1.0, 2.0, 3.0, 5.0, 8.0};
+
+    private GridSearch() {}
+
+    public static List<Hyperparameters> defaultGrid() {
+        List<Hyperparameters> grid = new ArrayList<>();
+        for (float cf : CONFIDENCE_FACTORS) {
+            for (int m : MIN_NUM_OBJS) {
+                for (boolean laplace : LAPLACE) {
+                    for (double cost : FAIL_AS_PASS_COSTS) {
+                        grid.add(new Hyperparameters(cf, m, laplace, cost));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    // Fits each candidate on fit and scores it on validation.
+    public static Report search(
+            List<Hyperparameters> grid,
+            Instances fit,
+            Instances validation,
+            int threads,
+            Duration budget
+    ) throws Exception {
+        List<Hyperparameters> order = new ArrayList<>(grid);
+        Collections.shuffle(order, new Random(42));
+        CostMatrix evaluationCost = Hyperparameters.DEFAULT.costMatrix();
+
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "grid-search-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<Trial>> futures = new ArrayList<>(order.size());
+        try {
+            for (Hyperparameters h : order) {
+                futures.add(pool.submit(() -> {
+                    // Weka cannot be interrupted mid-build, so the budget is enforced before starting.
+                    if (System.nanoTime() > deadline) {
+                        skipped.incrementAndGet();
+                        return null;
+                    }
+                    return evaluate(h, new Instances(fit), validation, evaluationCost);
+                }));
+            }
+            List<Trial> trials = new ArrayList<>(order.size());
+            for (Future<Trial> f : futures) {
+                Trial t = f.get();
+                if (t != null) trials.add(t);
+            }
+            long wallNanos = System.nanoTime() - start;
+            if (trials.isEmpty()) {
+                throw new IllegalStateException("The time budget ran out before any candidate was evaluated.");
+            }
+            trials.sort(BEST_FIRST);
+            long cpuNanos = trials.stream().mapToLong(Trial::nanos).sum();
+            return new Report(trials, order.size(), skipped.get(), threads, wallNanos, cpuNanos);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static Trial evaluate(Hyperparameters h, Instances fit, Instances validation, CostMatrix evaluationCost)
+            throws Exception {
+        // CPU rather than wall time, so the per-trial figures do not include time spent waiting for a core.
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        long t0 = mx.getCurrentThreadCpuTime();
+        CostSensitiveClassifier model = h.train(fit);
+        Evaluation eval = new Evaluation(fit, evaluationCost);
+        eval.evaluateModel(model, validation);
+        long nanos = mx.getCurrentThreadCpuTime() - t0;
+        return new Trial(h, eval.totalCost() / validation.numInstances(), eval.pctCorrect(), nanos);
+    }
+
+    // Lowest cost wins; ties go to the more accurate, then to the more heavily pruned tree, then to the
+    // cost ratio closest to the default.
+    static final Comparator<Trial> BEST_FIRST = Comparator
+            .comparingDouble(Trial::costPerStudent)
+            .thenComparing(Comparator.comparingDouble(Trial::accuracyPct).reversed())
+            .thenComparing(Comparator.comparingInt((Trial t) -> t.hyperparameters().minNumObj()).reversed())
+            .thenComparingDouble((Trial t) -> t.hyperparameters().confidenceFactor())
+            .thenComparingDouble(t -> Math.abs(t.hyperparameters().failAsPassCost() - Hyperparameters.DEFAULT.failAsPassCost()));
+
+    public record Trial(Hyperparameters hyperparameters, double costPerStudent, double accuracyPct, long nanos) {
+        public String toHumanString() {
+            return String.format(Locale.US, "cost/student=%.4f, accuracy=%.2f%%, %.0f ms: %s",
+                    costPerStudent, accuracyPct, nanos / 1e6, hyperparameters.toHumanString());
+        }
+    }
+
+    public record Report(List<Trial> trials, int candidates, int skipped, int threads, long wallNanos, long cpuNanos) {
+        public Trial best() {
+            return trials.get(0);
+        }
+
+        public String toHumanString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.US,
+                    "Grid search: %d of %d candidates evaluated (%d skipped by the time budget) on %d threads\n",
+                    trials.size(), candidates, skipped, threads));
+            sb.append(String.format(Locale.US,
+                    "- wall %.1f s, training+evaluation CPU %.1f s (%.2f cores kept busy)\n",
+                    wallNanos / 1e9, cpuNanos / 1e9, (double) cpuNanos / wallNanos));
+            sb.append("- top candidates (scored with the default 5:1 cost matrix):\n");
+            for (int i = 0; i < Math.min(5, trials.size()); i++) {
+                sb.append("  ").append(i + 1).append(". ").append(trials.get(i).toHumanString()).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+}
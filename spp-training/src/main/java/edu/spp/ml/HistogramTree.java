@@ -0,0 +1,577 @@
+package edu.spp.ml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.spp.predict.CompiledTree;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.trees.j48.Stats;
+import weka.core.Utils;
+
+// A J48-style pass/fail tree trained on binned columns instead of Weka Instances. Each feature is cut
+// once into at most MAX_BINS bins whose edges are actual values (every distinct value when there are
+// fewer, which is the case for exports recorded to one decimal), and a node's split is found from
+// per-bin class counts rather than by sorting its rows. A child's counts are built only for the smaller
+// child; the larger one gets the parent's minus the smaller's.
+//
+// Split choice follows C4.5 as J48 implements it: the best threshold of each feature by information
+// gain on the rows that have a value, scaled by their share and penalized by log2(candidates) / rows,
+// each side holding at least minNumObj rows (more on big nodes), then the feature with the best gain
+// ratio among those with at least average gain. The grown tree is collapsed and pruned with J48's
+// pessimistic error estimate at the same confidence factor. Two things differ: rows missing the split
+// feature follow the bigger branch instead of being split fractionally, and there is no subtree raising.
+//
+// Work is spread over threads two ways: nodes of at least PARALLEL_ROWS rows count their bins in
+// parallel chunks, and every smaller subtree is grown whole by one worker.
+public final class HistogramTree {
+
+    public static final int MAX_BINS = 1024;
+
+    private static final int NUM_CLASSES = 2;
+    private static final int SAMPLE_ROWS = 1 << 20;
+    private static final int PARALLEL_ROWS = 1 << 16;
+    private static final int MAX_DEPTH = 64;
+
+    private HistogramTree() {}
+
+    public record Result(
+            TreeModel model,
+            String treeText,
+            int numLeaves,
+            int leavesBeforePruning,
+            int threads,
+            long binNanos,
+            long growNanos,
+            long pruneNanos
+    ) {
+        public long trainNanos() {
+            return binNanos + growNanos + pruneNanos;
+        }
+
+        public String toHumanString() {
+            return String.format(Locale.US,
+                    "Histogram tree: %d leaves (%d before pruning), trained in %d ms on %d thread(s): binning %d ms, growing %d ms, pruning %d ms",
+                    numLeaves, leavesBeforePruning, trainNanos() / 1_000_000L, threads,
+                    binNanos / 1_000_000L, growNanos / 1_000_000L, pruneNanos / 1_000_000L);
+        }
+    }
+
+    // Trains on rows [from, to) of data; the cost matrix is applied to the leaves as J48 inside a
+    // minimum-expected-cost CostSensitiveClassifier would.
+    public static Result train(PassFailDataset data, int from, int to, Hyperparameters hyperparameters, int threads)
+            throws Exception {
+        if (from < 0 || to > data.size() || from >= to) {
+            throw new IllegalArgumentException("Row range [" + from + ", " + to + ") outside 0.." + data.size() + " or empty");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = threads == 1 ? null : Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "histogram-tree-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            long t0 = System.nanoTime();
+            Binned binned = Binned.of(data, from, to, pool, threads);
+            long t1 = System.nanoTime();
+
+            Grower grower = new Grower(binned, hyperparameters.minNumObj(), pool, threads);
+            Node root = grower.growAll();
+            long t2 = System.nanoTime();
+
+            int leavesBeforePruning = root.numLeaves();
+            collapse(root);
+            prune(root, hyperparameters.confidenceFactor());
+            long t3 = System.nanoTime();
+
+            TreeModelBuilder builder = new TreeModelBuilder(hyperparameters.costArray());
+            TreeModel model = builder.build(add(builder, root, hyperparameters.useLaplace()));
+            StringBuilder text = new StringBuilder();
+            if (root.isLeaf()) appendLeaf(text, root);
+            else appendTree(text, root, 0);
+            return new Result(model, text.toString(), root.numLeaves(), leavesBeforePruning, threads,
+                    t1 - t0, t2 - t1, t3 - t2);
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+    }
+
+    // Bin codes per feature: value v gets the first bin whose edge is >= v, values above the last edge
+    // get edges.length, and a missing value gets edges.length + 1.
+    private static final class Binned {
+        final int size;
+        final double[][] edges;
+        final short[][] codes;
+        final byte[] label;
+
+        private Binned(int size, double[][] edges, short[][] codes, byte[] label) {
+            this.size = size;
+            this.edges = edges;
+            this.codes = codes;
+            this.label = label;
+        }
+
+        static Binned of(PassFailDataset data, int from, int to, ExecutorService pool, int threads) throws Exception {
+            int n = to - from;
+            double[][] columns = {data.studyHours(), data.attendance(), data.participation()};
+            double[][] edges = new double[TreeModel.NUM_FEATURES][];
+            short[][] codes = new short[TreeModel.NUM_FEATURES][n];
+            for (int f = 0; f < edges.length; f++) edges[f] = edges(columns[f], from, to);
+
+            BinLookup[] lookups = new BinLookup[edges.length];
+            for (int f = 0; f < edges.length; f++) lookups[f] = new BinLookup(edges[f]);
+
+            runChunks(pool, threads, n, (lo, hi) -> {
+                for (int f = 0; f < edges.length; f++) {
+                    double[] column = columns[f];
+                    BinLookup lookup = lookups[f];
+                    short[] out = codes[f];
+                    for (int i = lo; i < hi; i++) out[i] = (short) lookup.code(column[from + i]);
+                }
+            });
+            return new Binned(n, edges, codes, Arrays.copyOfRange(data.labels(), from, to));
+        }
+
+        // Every distinct value of an evenly spaced sample when they fit, otherwise its quantiles.
+        private static double[] edges(double[] column, int from, int to) {
+            int stride = Math.max(1, (to - from) / SAMPLE_ROWS);
+            double[] sample = new double[(to - from + stride - 1) / stride];
+            int m = 0;
+            for (int i = from; i < to; i += stride) {
+                if (!Double.isNaN(column[i])) sample[m++] = column[i];
+            }
+            Arrays.sort(sample, 0, m);
+            double[] distinct = new double[m];
+            int d = 0;
+            for (int i = 0; i < m; i++) {
+                if (d == 0 || sample[i] != distinct[d - 1]) distinct[d++] = sample[i];
+            }
+            if (d < MAX_BINS) return Arrays.copyOf(distinct, d);
+
+            double[] quantiles = new double[MAX_BINS - 1];
+            int q = 0;
+            for (int i = 1; i <= quantiles.length; i++) {
+                double v = sample[(int) ((long) m * i / (quantiles.length + 1))];
+                if (q == 0 || v != quantiles[q - 1]) quantiles[q++] = v;
+            }
+            return Arrays.copyOf(quantiles, q);
+        }
+
+        int slots(int feature) {
+            return edges[feature].length + 2;
+        }
+    }
+
+    // Finds the first edge >= v by starting from a table over equal-width cells of the edge range and
+    // stepping forward, which is a lookup and a step or two instead of a ten-step binary search.
+    private static final class BinLookup {
+        private static final int CELLS = 4096;
+
+        private final double[] edges;
+        private final double min;
+        private final double scale;
+        private final int[] start;
+
+        BinLookup(double[] edges) {
+            this.edges = edges;
+            this.min = edges.length == 0 ? 0.0 : edges[0];
+            double range = edges.length == 0 ? 0.0 : edges[edges.length - 1] - min;
+            this.scale = range > 0 ? CELLS / range : 0.0;
+            this.start = new int[CELLS + 1];
+            for (int c = 0; c <= CELLS; c++) {
+                // One below the bin of the cell's lower bound, so rounding can never start past the answer.
+                start[c] = Math.max(0, search(edges, min + c / scale) - 1);
+            }
+        }
+
+        int code(double v) {
+            if (Double.isNaN(v)) return edges.length + 1;
+            if (edges.length == 0 || v <= min) return 0;
+            int cell = (int) Math.min(CELLS, (v - min) * scale);
+            int b = start[cell];
+            while (b < edges.length && edges[b] < v) b++;
+            return b;
+        }
+
+        private static int search(double[] edges, double v) {
+            int lo = 0;
+            int hi = edges.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (edges[mid] < v) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    private static final class Node {
+        final int[] counts;
+        int feature = -1;
+        int bin;
+        double threshold;
+        int leftRows;
+        int rightRows;
+        Node left;
+        Node right;
+
+        Node(int[] counts) {
+            this.counts = counts;
+        }
+
+        boolean isLeaf() {
+            return left == null;
+        }
+
+        int rows() {
+            return counts[0] + counts[1];
+        }
+
+        int errorsAsLeaf() {
+            return rows() - Math.max(counts[0], counts[1]);
+        }
+
+        int numLeaves() {
+            return isLeaf() ? 1 : left.numLeaves() + right.numLeaves();
+        }
+
+        int trainingErrors() {
+            return isLeaf() ? errorsAsLeaf() : left.trainingErrors() + right.trainingErrors();
+        }
+
+        void makeLeaf() {
+            feature = -1;
+            left = null;
+            right = null;
+        }
+    }
+
+    private static final class Grower {
+        private final Binned binned;
+        private final int minNumObj;
+        private final ExecutorService pool;
+        private final int threads;
+        private final int[] rows;
+        private final List<Subtree> deferred = new ArrayList<>();
+
+        Grower(Binned binned, int minNumObj, ExecutorService pool, int threads) {
+            this.binned = binned;
+            this.minNumObj = minNumObj;
+            this.pool = pool;
+            this.threads = threads;
+            this.rows = new int[binned.size];
+            for (int i = 0; i < rows.length; i++) rows[i] = i;
+        }
+
+        Node growAll() throws Exception {
+            int[][] hist = histogram(0, rows.length, true);
+            Node root = new Node(classCounts(hist));
+            grow(root, 0, rows.length, hist, 0, true);
+            if (!deferred.isEmpty()) {
+                List<Callable<Void>> jobs = new ArrayList<>(deferred.size());
+                for (Subtree s : deferred) {
+                    jobs.add(() -> {
+                        grow(s.node, s.lo, s.hi, s.hist, s.depth, false);
+                        return null;
+                    });
+                }
+                for (Future<Void> f : pool.invokeAll(jobs)) f.get();
+            }
+            return root;
+        }
+
+        // On the calling thread only while the node is big; smaller subtrees go to the pool whole.
+        private void grow(Node node, int lo, int hi, int[][] hist, int depth, boolean top) throws Exception {
+            int n = hi - lo;
+            if (n < 2 * minNumObj || node.counts[0] == 0 || node.counts[1] == 0 || depth >= MAX_DEPTH) return;
+            if (!chooseSplit(node, hist)) return;
+
+            // Rows missing the split feature follow the bigger side.
+            short[] codes = binned.codes[node.feature];
+            int missing = binned.edges[node.feature].length + 1;
+            boolean missingLeft = node.leftRows >= node.rightRows;
+            int i = lo;
+            int j = hi - 1;
+            while (i <= j) {
+                int code = codes[rows[i]];
+                boolean goLeft = code == missing ? missingLeft : code <= node.bin;
+                if (goLeft) {
+                    i++;
+                } else {
+                    int t = rows[i];
+                    rows[i] = rows[j];
+                    rows[j] = t;
+                    j--;
+                }
+            }
+            int mid = i;
+
+            boolean leftSmaller = mid - lo <= hi - mid;
+            int[][] small = leftSmaller
+                    ? histogram(lo, mid, top && mid - lo >= PARALLEL_ROWS)
+                    : histogram(mid, hi, top && hi - mid >= PARALLEL_ROWS);
+            for (int f = 0; f < hist.length; f++) {
+                for (int s = 0; s < hist[f].length; s++) hist[f][s] -= small[f][s];
+            }
+            int[][] leftHist = leftSmaller ? small : hist;
+            int[][] rightHist = leftSmaller ? hist : small;
+            node.left = new Node(classCounts(leftHist));
+            node.right = new Node(classCounts(rightHist));
+            child(node.left, lo, mid, leftHist, depth + 1, top);
+            child(node.right, mid, hi, rightHist, depth + 1, top);
+        }
+
+        private void child(Node node, int lo, int hi, int[][] hist, int depth, boolean top) throws Exception {
+            if (top && pool != null && hi - lo < PARALLEL_ROWS) {
+                deferred.add(new Subtree(node, lo, hi, hist, depth));
+            } else {
+                grow(node, lo, hi, hist, depth, top);
+            }
+        }
+
+        private boolean chooseSplit(Node node, int[][] hist) {
+            int total = node.rows();
+            int[] bestBin = new int[hist.length];
+            double[] gain = new double[hist.length];
+            double[] gainRatio = new double[hist.length];
+            int[] leftRows = new int[hist.length];
+            int[] rightRows = new int[hist.length];
+            double gainSum = 0.0;
+            int valid = 0;
+            for (int f = 0; f < hist.length; f++) {
+                int[] h = hist[f];
+                int bins = binned.edges[f].length;
+                int missing = bins + 1;
+                double[] known = new double[NUM_CLASSES];
+                for (int b = 0; b <= bins; b++) {
+                    known[0] += h[2 * b];
+                    known[1] += h[2 * b + 1];
+                }
+                double knownRows = known[0] + known[1];
+                // As C45Split: minNumObj is a floor the 25-row cap never lowers.
+                double minSplit = 0.1 * knownRows / NUM_CLASSES;
+                minSplit = minSplit <= minNumObj ? minNumObj : Math.min(25.0, minSplit);
+                if (knownRows < 2 * minSplit) {
+                    bestBin[f] = -1;
+                    continue;
+                }
+                double before = entropy(known[0], known[1]);
+                double[] below = new double[NUM_CLASSES];
+                double best = Double.NEGATIVE_INFINITY;
+                int candidates = 0;
+                bestBin[f] = -1;
+                for (int b = 0; b < bins; b++) {
+                    if (h[2 * b] + h[2 * b + 1] == 0) continue;
+                    below[0] += h[2 * b];
+                    below[1] += h[2 * b + 1];
+                    double l = below[0] + below[1];
+                    double r = knownRows - l;
+                    if (r < minSplit) break;
+                    if (l < minSplit) continue;
+                    candidates++;
+                    double after = (l * entropy(below[0], below[1]) + r * entropy(known[0] - below[0], known[1] - below[1])) / knownRows;
+                    double g = before - after;
+                    if (g > best) {
+                        best = g;
+                        bestBin[f] = b;
+                        leftRows[f] = (int) l;
+                        rightRows[f] = (int) r;
+                    }
+                }
+                if (bestBin[f] < 0) continue;
+                double missingRows = h[2 * missing] + h[2 * missing + 1];
+                gain[f] = best * knownRows / total - Utils.log2(candidates) / knownRows;
+                if (gain[f] <= 0) {
+                    bestBin[f] = -1;
+                    continue;
+                }
+                double splitInfo = entropy(leftRows[f], rightRows[f], missingRows);
+                gainRatio[f] = splitInfo > 0 ? gain[f] / splitInfo : 0.0;
+                gainSum += gain[f];
+                valid++;
+            }
+            if (valid == 0) return false;
+
+            double average = gainSum / valid;
+            int chosen = -1;
+            for (int f = 0; f < hist.length; f++) {
+                if (bestBin[f] < 0 || gain[f] < average - 1e-3) continue;
+                if (chosen < 0 || gainRatio[f] > gainRatio[chosen]) chosen = f;
+            }
+            if (chosen < 0) return false;
+            node.feature = chosen;
+            node.bin = bestBin[chosen];
+            node.threshold = binned.edges[chosen][bestBin[chosen]];
+            node.leftRows = leftRows[chosen];
+            node.rightRows = rightRows[chosen];
+            return true;
+        }
+
+        private int[][] histogram(int lo, int hi, boolean parallel) throws Exception {
+            if (!parallel || pool == null) {
+                int[][] hist = emptyHistogram();
+                count(hist, lo, hi);
+                return hist;
+            }
+            int chunks = Math.min(threads, Math.max(1, (hi - lo) / (PARALLEL_ROWS / 4)));
+            List<Future<int[][]>> parts = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int a = lo + (int) ((long) (hi - lo) * c / chunks);
+                int b = lo + (int) ((long) (hi - lo) * (c + 1) / chunks);
+                parts.add(pool.submit(() -> {
+                    int[][] part = emptyHistogram();
+                    count(part, a, b);
+                    return part;
+                }));
+            }
+            int[][] hist = parts.get(0).get();
+            for (int c = 1; c < chunks; c++) {
+                int[][] part = parts.get(c).get();
+                for (int f = 0; f < hist.length; f++) {
+                    for (int s = 0; s < hist[f].length; s++) hist[f][s] += part[f][s];
+                }
+            }
+            return hist;
+        }
+
+        private void count(int[][] hist, int lo, int hi) {
+            byte[] label = binned.label;
+            for (int f = 0; f < hist.length; f++) {
+                int[] h = hist[f];
+                short[] codes = binned.codes[f];
+                for (int i = lo; i < hi; i++) {
+                    int row = rows[i];
+                    h[2 * codes[row] + label[row]]++;
+                }
+            }
+        }
+
+        private int[][] emptyHistogram() {
+            int[][] hist = new int[TreeModel.NUM_FEATURES][];
+            for (int f = 0; f < hist.length; f++) hist[f] = new int[2 * binned.slots(f)];
+            return hist;
+        }
+
+        private static int[] classCounts(int[][] hist) {
+            int[] counts = new int[NUM_CLASSES];
+            int[] h = hist[0];
+            for (int s = 0; s < h.length; s += 2) {
+                counts[0] += h[s];
+                counts[1] += h[s + 1];
+            }
+            return counts;
+        }
+
+        private record Subtree(Node node, int lo, int hi, int[][] hist, int depth) {}
+    }
+
+    private static double entropy(double... counts) {
+        double total = 0.0;
+        for (double c : counts) total += c;
+        if (total <= 0) return 0.0;
+        double h = 0.0;
+        for (double c : counts) {
+            if (c > 0) h -= c / total * Utils.log2(c / total);
+        }
+        return h;
+    }
+
+    // J48's collapse(): a subtree that makes as many training errors as a single leaf becomes one.
+    private static void collapse(Node node) {
+        if (node.isLeaf()) return;
+        if (node.trainingErrors() >= node.errorsAsLeaf() - 1e-3) {
+            node.makeLeaf();
+            return;
+        }
+        collapse(node.left);
+        collapse(node.right);
+    }
+
+    // J48's subtree replacement: keep a subtree only if its estimated errors beat a leaf's by more than 0.1.
+    private static double prune(Node node, float confidenceFactor) {
+        double asLeaf = node.errorsAsLeaf() + Stats.addErrs(node.rows(), node.errorsAsLeaf(), confidenceFactor);
+        if (node.isLeaf()) return asLeaf;
+        double asTree = prune(node.left, confidenceFactor) + prune(node.right, confidenceFactor);
+        if (asLeaf <= asTree + 0.1) {
+            node.makeLeaf();
+            return asLeaf;
+        }
+        return asTree;
+    }
+
+    private static int add(TreeModelBuilder builder, Node node, boolean laplace) {
+        if (node.isLeaf()) {
+            return builder.leaf(TreeModelBuilder.probabilities(new double[] {node.counts[0], node.counts[1]}, laplace));
+        }
+        int id = builder.split(node.feature, node.threshold, node.left.rows(), node.right.rows());
+        int leftRef = add(builder, node.left, laplace);
+        builder.children(id, leftRef, add(builder, node.right, laplace));
+        return id;
+    }
+
+    // The layout J48 prints, so the text reads (and parses) like the J48 trees it replaces.
+    private static void appendTree(StringBuilder out, Node node, int depth) {
+        String name = featureName(node.feature);
+        String t = Utils.doubleToString(node.threshold, 6);
+        appendBranch(out, node.left, depth, name + " <= " + t);
+        appendBranch(out, node.right, depth, name + " > " + t);
+    }
+
+    private static void appendBranch(StringBuilder out, Node child, int depth, String condition) {
+        out.append("|   ".repeat(depth)).append(condition);
+        if (child.isLeaf()) {
+            out.append(": ");
+            appendLeaf(out, child);
+        } else {
+            out.append('\n');
+            appendTree(out, child, depth + 1);
+        }
+    }
+
+    private static void appendLeaf(StringBuilder out, Node leaf) {
+        out.append(leaf.counts[1] > leaf.counts[0] ? "PASS" : "FAIL")
+                .append(" (").append((double) leaf.rows());
+        if (leaf.errorsAsLeaf() > 0) out.append('/').append((double) leaf.errorsAsLeaf());
+        out.append(")\n");
+    }
+
+    private static String featureName(int feature) {
+        return switch (feature) {
+            case CompiledTree.FEATURE_STUDY_HOURS -> DataPreprocessor.ATTR_STUDY_HOURS;
+            case CompiledTree.FEATURE_ATTENDANCE -> DataPreprocessor.ATTR_ATTENDANCE;
+            default -> DataPreprocessor.ATTR_PARTICIPATION;
+        };
+    }
+
+    private interface RowRange {
+        void run(int lo, int hi);
+    }
+
+    private static void runChunks(ExecutorService pool, int threads, int n, RowRange body) throws Exception {
+        if (pool == null || n < PARALLEL_ROWS) {
+            body.run(0, n);
+            return;
+        }
+        List<Future<?>> parts = new ArrayList<>(threads);
+        for (int c = 0; c < threads; c++) {
+            int lo = (int) ((long) n * c / threads);
+            int hi = (int) ((long) n * (c + 1) / threads);
+            parts.add(pool.submit(() -> body.run(lo, hi)));
+        }
+        for (Future<?> f : parts) f.get();
+    }
+}
@@ -0,0 +1,57 @@
+package edu.spp.ml;
+
+import java.util.Locale;
+
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+
+// One cost-sensitive J48 configuration. failAsPassCost is the cost of predicting PASS for a student
+// who fails, relative to 1 for the opposite mistake.
+public record Hyperparameters(float confidenceFactor, int minNumObj, boolean useLaplace, double failAsPassCost) {
+
+    public static final Hyperparameters DEFAULT = new Hyperparameters(0.15f, 10, true, 5.0);
+
+    public CostSensitiveClassifier train(Instances train) throws Exception {
+        J48 j48 = new J48();
+        j48.setUnpruned(false);
+        j48.setConfidenceFactor(confidenceFactor);
+        j48.setMinNumObj(minNumObj);
+        j48.setUseLaplace(useLaplace);
+
+        CostSensitiveClassifier model = new CostSensitiveClassifier();
+        model.setClassifier(j48);
+        model.setMinimizeExpectedCost(true);
+        model.setCostMatrix(costMatrix());
+        model.buildClassifier(train);
+        return model;
+    }
+
+    public CostMatrix costMatrix() {
+        return passFailCostMatrix(failAsPassCost);
+    }
+
+    // The same matrix as plain arrays, [actual][predicted], for learners that are not Weka classifiers.
+    public double[][] costArray() {
+        return new double[][] {{0.0, failAsPassCost}, {1.0, 0.0}};
+    }
+
+    static CostMatrix passFailCostMatrix(double failAsPassCost) {
+        CostMatrix cm = new CostMatrix(2);
+        cm.setElement(0, 0, 0.0);
+        cm.setElement(1, 1, 0.0);
+        cm.setElement(0, 1, failAsPassCost);
+        cm.setElement(1, 0, 1.0);
+        return cm;
+    }
+
+    public String toHumanString() {
+        return String.format(Locale.US, "confidenceFactor=%.2f, minNumObj=%d, laplace=%s, cost FAIL->PASS:PASS->FAIL=%s:1",
+                confidenceFactor, minNumObj, useLaplace, trim(failAsPassCost));
+    }
+
+    private static String trim(double v) {
+        return v == Math.rint(v) ? Long.toString((long) v) : Double.toString(v);
+    }
+}
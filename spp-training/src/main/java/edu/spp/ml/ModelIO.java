@@ -0,0 +1,126 @@
+package edu.spp.ml;
+
+import edu.spp.predict.TreeEnsemble;
+import edu.spp.predict.TreeEnsembleFile;
+import edu.spp.predict.TreeModel;
+import edu.spp.predict.TreeModelFile;
+import weka.classifiers.Classifier;
+import weka.core.Instances;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class ModelIO {
+
+    public enum Format {
+        // The whole Weka object graph through ObjectOutputStream.
+        JAVA_SERIALIZED,
+        // TreeModelFile: only what scoring and explanations need, no Weka classes.
+        COMPACT,
+        // TreeEnsembleFile: the member trees of a bagged ensemble, each in the compact encoding.
+        ENSEMBLE
+    }
+
+    // Exactly one of classifier, treeModel and ensemble is set, depending on the format.
+    public record ModelFile(Format format, Classifier classifier, TreeModel treeModel, TreeEnsemble ensemble) {}
+
+    private ModelIO() {}
+
+    // Writes next to the target and renames it into place, so a watcher never sees a half-written model.
+    public static void save(Classifier model, File file) throws Exception {
+        writeAtomically(file, out -> {
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(model);
+            oos.flush();
+        });
+    }
+
+    public static void saveCompact(Classifier model, Instances header, File file) throws Exception {
+        saveCompact(TreeCompiler.export(model, header), file);
+    }
+
+    public static void saveCompact(TreeModel model, File file) throws Exception {
+        byte[] bytes = TreeModelFile.encode(model);
+        writeAtomically(file, out -> out.write(bytes));
+    }
+
+    public static void saveEnsemble(TreeEnsemble ensemble, File file) throws Exception {
+        byte[] bytes = TreeEnsembleFile.encode(ensemble);
+        writeAtomically(file, out -> out.write(bytes));
+    }
+
+    // The full learner state of an incremental tree, so updates can resume where the last run stopped.
+    public static void saveLearner(IncrementalTree learner, File file) throws Exception {
+        writeAtomically(file, out -> {
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(learner);
+            oos.flush();
+        });
+    }
+
+    public static IncrementalTree loadLearner(File file) throws Exception {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Object state = ois.readObject();
+            if (!(state instanceof IncrementalTree learner)) {
+                throw new IllegalStateException("Not an incremental learner state: " + file.getPath());
+            }
+            return learner;
+        }
+    }
+
+    private static void writeAtomically(File file, ContentWriter writer) throws Exception {
+        File target = file.getAbsoluteFile();
+        File parent = target.getParentFile();
+        parent.mkdirs();
+        Path tmp = Files.createTempFile(parent.toPath(), target.getName(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                writer.write(out);
+            }
+            // temp files are created owner-only; a model file is not a secret
+            tmp.toFile().setReadable(true, false);
+            try {
+                Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static Format detect(File file) throws IOException {
+        if (TreeModelFile.isTreeModelFile(file.toPath())) return Format.COMPACT;
+        if (TreeEnsembleFile.isEnsembleFile(file.toPath())) return Format.ENSEMBLE;
+        return Format.JAVA_SERIALIZED;
+    }
+
+    public static ModelFile read(File file) throws Exception {
+        return switch (detect(file)) {
+            case COMPACT -> new ModelFile(Format.COMPACT, null, TreeModelFile.read(file.toPath()), null);
+            case ENSEMBLE -> new ModelFile(Format.ENSEMBLE, null, null, TreeEnsembleFile.read(file.toPath()));
+            case JAVA_SERIALIZED -> new ModelFile(Format.JAVA_SERIALIZED, load(file), null, null);
+        };
+    }
+
+    // Java-serialized models only; read() accepts every format.
+    public static Classifier load(File file) throws Exception {
+        Format format = detect(file);
+        if (format == Format.COMPACT) {
+            throw new IllegalStateException("Compact model files hold no Weka classifier: " + file.getPath());
+        }
+        if (format == Format.ENSEMBLE) {
+            throw new IllegalStateException("Ensemble model files hold no Weka classifier: " + file.getPath());
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return (Classifier) ois.readObject();
+        }
+    }
+
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,149 @@
+package edu.spp.ml;
+
+import java.util.Random;
+
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+// The pass/fail training set kept as columns: the three features plus a byte label holding the class
+// index of the Weka header (0 = FAIL, 1 = PASS), about 25 bytes a row against roughly 90 for a
+// DenseInstance. Labels are derived from the raw columns in one pass over whole arrays, and Weka
+// Instances are only built, for a range of rows, when a learner needs them.
+//
+// The feature arrays are shared with the StudentColumns the set was built from, not copied, and
+// shuffle() reorders them in place.
+public final class PassFailDataset {
+
+    public static final byte FAIL = 0;
+    public static final byte PASS = 1;
+
+    // Part of the dataset cache key: change it whenever from() changes, so cached labels are rebuilt.
+    static final String LABEL_RULE = "pass-fail v1: (total_score >= 55 | grade in A-C) & attendance >= 70 & participation >= 3";
+
+    private final int size;
+    private final double[] studyHours;
+    private final double[] attendance;
+    private final double[] participation;
+    private final byte[] label;
+
+    private PassFailDataset(int size, double[] studyHours, double[] attendance, double[] participation, byte[] label) {
+        this.size = size;
+        this.studyHours = studyHours;
+        this.attendance = attendance;
+        this.participation = participation;
+        this.label = label;
+    }
+
+    static PassFailDataset of(double[] studyHours, double[] attendance, double[] participation, byte[] label) {
+        return new PassFailDataset(label.length, studyHours, attendance, participation, label);
+    }
+
+    // PASS needs total_score >= 55 (or, for exports without a score, an A, B or C grade), attendance >= 70
+    // and participation >= 3. Comparisons with NaN are false, so a missing value fails its condition.
+    public static PassFailDataset from(StudentColumns raw) {
+        int n = raw.size();
+        double[] attendance = raw.attendance();
+        double[] participation = raw.participation();
+        byte[] label = new byte[n];
+        if (raw.totalScore() != null) {
+            double[] score = raw.totalScore();
+            for (int i = 0; i < n; i++) {
+                boolean pass = score[i] >= 55.0 & attendance[i] >= 70.0 & participation[i] >= 3.0;
+                label[i] = pass ? PASS : FAIL;
+            }
+        } else if (raw.grade() != null) {
+            byte[] grade = raw.grade();
+            for (int i = 0; i < n; i++) {
+                boolean pass = grade[i] >= 'A' & grade[i] <= 'C' & attendance[i] >= 70.0 & participation[i] >= 3.0;
+                label[i] = pass ? PASS : FAIL;
+            }
+        }
+        return new PassFailDataset(n, raw.studyHours(), attendance, participation, label);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte label(int row) {
+        return label[row];
+    }
+
+    double[] studyHours() {
+        return studyHours;
+    }
+
+    double[] attendance() {
+        return attendance;
+    }
+
+    double[] participation() {
+        return participation;
+    }
+
+    byte[] labels() {
+        return label;
+    }
+
+    public int passCount() {
+        int pass = 0;
+        for (int i = 0; i < size; i++) pass += label[i];
+        return pass;
+    }
+
+    public long heapBytes() {
+        return (3L * Double.BYTES + 1) * size;
+    }
+
+    // The same permutation Instances.randomize(random) applies, so seeded splits match the ones taken
+    // from Weka Instances.
+    public void shuffle(Random random) {
+        for (int j = size - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            swap(studyHours, j, k);
+            swap(attendance, j, k);
+            swap(participation, j, k);
+            byte t = label[j];
+            label[j] = label[k];
+            label[k] = t;
+        }
+    }
+
+    // A new dataset holding the given rows in that order; rows may repeat, as in a bootstrap sample.
+    PassFailDataset rows(int[] rows) {
+        double[] h = new double[rows.length];
+        double[] a = new double[rows.length];
+        double[] p = new double[rows.length];
+        byte[] l = new byte[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int r = rows[i];
+            h[i] = studyHours[r];
+            a[i] = attendance[r];
+            p[i] = participation[r];
+            l[i] = label[r];
+        }
+        return new PassFailDataset(rows.length, h, a, p, l);
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    public Instances toInstances() {
+        return toInstances(0, size);
+    }
+
+    public Instances toInstances(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IllegalArgumentException("Row range [" + from + ", " + to + ") outside 0.." + size);
+        }
+        Instances out = new Instances("student_performance_passfail", DataPreprocessor.passFailAttributes(), to - from);
+        out.setClassIndex(out.numAttributes() - 1);
+        for (int i = from; i < to; i++) {
+            out.add(new DenseInstance(1.0, new double[] {studyHours[i], attendance[i], participation[i], label[i]}));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.spp.ml;
+
+// The raw training export held as one primitive array per column, row i across all of them.
+// Missing numbers are NaN. grade holds the upper-case letter of a one-letter grade and 0 for anything
+// else (missing, or longer grades such as "A+"); totalScore or grade is null when the export has no
+// such column.
+public record StudentColumns(
+        int size,
+        double[] studyHours,
+        double[] attendance,
+        double[] participation,
+        double[] totalScore,
+        byte[] grade
+) {
+    public long heapBytes() {
+        long perRow = 3L * Double.BYTES
+                + (totalScore != null ? Double.BYTES : 0)
+                + (grade != null ? 1 : 0);
+        return perRow * size;
+    }
+}
@@ -0,0 +1,344 @@
+package edu.spp.ml;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.spp.predict.StudentSchema;
+
+// Reads the student export (student_id, weekly_self_study_hours, attendance_percentage,
+// class_participation, total_score, grade) straight into primitive columns, without Weka's CSVLoader.
+//
+// The file is cut into chunks at line breaks and every chunk is memory-mapped and parsed on a pool
+// thread, twice: once to count its rows, then again to write them into its own slice of the columns.
+// That way the columns are allocated once at their final size and nothing else is buffered on the
+// heap. Columns are matched by name (case-insensitively, in any order); unknown columns are skipped.
+// Fields are split on every comma, so quoted fields may not contain one.
+public final class StudentCsvReader {
+
+    static final long MIN_CHUNK_BYTES = 1L << 20;
+    static final long MAX_CHUNK_BYTES = 32L << 20;
+    static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private static final byte SKIP = 0;
+    private static final byte STUDY = 1;
+    private static final byte ATTENDANCE = 2;
+    private static final byte PARTICIPATION = 3;
+    private static final byte SCORE = 4;
+    private static final byte GRADE = 5;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private StudentCsvReader() {}
+
+    public static StudentColumns read(Path csv, int threads) throws Exception {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return read((from, to) -> channel.map(FileChannel.MapMode.READ_ONLY, from, to - from), size, threads,
+                    csv.toString());
+        }
+    }
+
+    public static StudentColumns read(ByteBuffer csv, int threads) throws Exception {
+        ByteBuffer all = csv.slice();
+        return read((from, to) -> all.slice((int) from, (int) (to - from)), all.remaining(), threads, "buffer");
+    }
+
+    private interface Source {
+        ByteBuffer region(long from, long to) throws IOException;
+    }
+
+    private static StudentColumns read(Source source, long size, int threads, String name) throws Exception {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, got " + threads);
+        }
+        ByteBuffer head = source.region(0, Math.min(size, MAX_HEADER_BYTES));
+        int headerEnd = indexOf(head, 0, head.limit(), (byte) '\n');
+        if (headerEnd < 0 && size > MAX_HEADER_BYTES) {
+            throw new IllegalStateException("No header line in the first " + MAX_HEADER_BYTES + " bytes of " + name);
+        }
+        if (headerEnd < 0) headerEnd = head.limit();
+        byte[] roles = parseHeader(head, headerEnd, name);
+        boolean hasScore = contains(roles, SCORE);
+        boolean hasGrade = contains(roles, GRADE);
+
+        long dataStart = Math.min(size, headerEnd + 1L);
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, (size - dataStart) / (threads * 4L)));
+        List<Chunk> chunks = new ArrayList<>();
+        long from = dataStart;
+        while (from < size) {
+            long to = from + chunkBytes >= size ? size : nextLineStart(source, size, from + chunkBytes);
+            chunks.add(new Chunk(from, to));
+            from = to;
+        }
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "csv-reader-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> counting = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                counting.add(pool.submit(() -> {
+                    chunk.bytes = source.region(chunk.from, chunk.to);
+                    chunk.rows = countRows(chunk.bytes);
+                    return null;
+                }));
+            }
+            long total = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                counting.get(i).get();
+                chunks.get(i).firstRow = (int) total;
+                total += chunks.get(i).rows;
+                if (total > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Too many rows for one dataset in " + name + ": " + total + "+");
+                }
+            }
+
+            int rows = (int) total;
+            StudentColumns columns = new StudentColumns(
+                    rows,
+                    new double[rows],
+                    new double[rows],
+                    new double[rows],
+                    hasScore ? new double[rows] : null,
+                    hasGrade ? new byte[rows] : null);
+            List<Future<?>> parsing = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                parsing.add(pool.submit(() -> {
+                    parseRows(chunk, roles, columns);
+                    chunk.bytes = null;
+                    return null;
+                }));
+            }
+            for (Future<?> f : parsing) {
+                f.get();
+            }
+            return columns;
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static final class Chunk {
+        final long from;
+        final long to;
+        ByteBuffer bytes;
+        int rows;
+        int firstRow;
+
+        Chunk(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    private static byte[] parseHeader(ByteBuffer head, int end, String name) {
+        int start = 0;
+        // UTF-8 byte order mark, as written by Excel.
+        if (end >= 3 && head.get(0) == (byte) 0xEF && head.get(1) == (byte) 0xBB && head.get(2) == (byte) 0xBF) {
+            start = 3;
+        }
+        byte[] line = new byte[end - start];
+        head.get(start, line);
+        String[] columns = new String(line, StandardCharsets.UTF_8).split(",", -1);
+
+        byte[] roles = new byte[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String c = unquote(columns[i].trim());
+            if (c.equalsIgnoreCase(StudentSchema.ATTR_STUDY_HOURS)) roles[i] = STUDY;
+            else if (c.equalsIgnoreCase(StudentSchema.ATTR_ATTENDANCE)) roles[i] = ATTENDANCE;
+            else if (c.equalsIgnoreCase(StudentSchema.ATTR_PARTICIPATION)) roles[i] = PARTICIPATION;
+            else if (c.equalsIgnoreCase(DataPreprocessor.ATTR_TOTAL_SCORE)) roles[i] = SCORE;
+            else if (c.equalsIgnoreCase(DataPreprocessor.ATTR_GRADE)) roles[i] = GRADE;
+        }
+        requireColumn(roles, STUDY, StudentSchema.ATTR_STUDY_HOURS, name);
+        requireColumn(roles, ATTENDANCE, StudentSchema.ATTR_ATTENDANCE, name);
+        requireColumn(roles, PARTICIPATION, StudentSchema.ATTR_PARTICIPATION, name);
+        if (!contains(roles, SCORE) && !contains(roles, GRADE)) {
+            throw new IllegalStateException("Dataset " + name + " has neither a "
+                    + DataPreprocessor.ATTR_TOTAL_SCORE + " nor a " + DataPreprocessor.ATTR_GRADE + " column.");
+        }
+        return roles;
+    }
+
+    private static String unquote(String s) {
+        if (s.length() >= 2 && s.charAt(0) == '"' && s.charAt(s.length() - 1) == '"') {
+            return s.substring(1, s.length() - 1).trim();
+        }
+        return s;
+    }
+
+    private static void requireColumn(byte[] roles, byte role, String column, String name) {
+        if (!contains(roles, role)) {
+            throw new IllegalStateException("Dataset " + name + " is missing column: " + column);
+        }
+    }
+
+    private static boolean contains(byte[] roles, byte role) {
+        for (byte r : roles) {
+            if (r == role) return true;
+        }
+        return false;
+    }
+
+    private static long nextLineStart(Source source, long size, long pos) throws IOException {
+        while (pos < size) {
+            long to = Math.min(size, pos + 4096);
+            ByteBuffer window = source.region(pos, to);
+            int nl = indexOf(window, 0, window.limit(), (byte) '\n');
+            if (nl >= 0) return pos + nl + 1;
+            pos = to;
+        }
+        return size;
+    }
+
+    private static int indexOf(ByteBuffer b, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (b.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    // A row is a line with anything on it besides the line break.
+    private static int countRows(ByteBuffer b) {
+        int rows = 0;
+        int pos = 0;
+        int limit = b.limit();
+        while (pos < limit) {
+            int lineEnd = indexOf(b, pos, limit, (byte) '\n');
+            if (lineEnd < 0) lineEnd = limit;
+            if (contentEnd(b, pos, lineEnd) > pos) rows++;
+            pos = lineEnd + 1;
+        }
+        return rows;
+    }
+
+    private static int contentEnd(ByteBuffer b, int from, int lineEnd) {
+        return lineEnd > from && b.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    // One pass over the chunk, storing each field as its comma or line break is reached; the row index
+    // only moves on at the end of a non-blank line, which matches countRows.
+    private static void parseRows(Chunk chunk, byte[] roles, StudentColumns columns) {
+        ByteBuffer b = chunk.bytes;
+        long offset = chunk.from;
+        int row = chunk.firstRow;
+        int limit = b.limit();
+        int lineStart = 0;
+        int start = 0;
+        int field = 0;
+        for (int i = 0; i <= limit; i++) {
+            byte c = i < limit ? b.get(i) : (byte) '\n';
+            if (c != ',' && c != '\n') continue;
+            int end = c == '\n' ? contentEnd(b, start, i) : i;
+            if (c == '\n' && field == 0 && end == lineStart) {
+                lineStart = start = i + 1;
+                continue;
+            }
+            if (field < roles.length && roles[field] != SKIP) {
+                store(b, start, end, row, roles[field], columns, offset);
+            }
+            field++;
+            start = i + 1;
+            if (c == '\n') {
+                // Short rows: the trailing columns are missing.
+                for (; field < roles.length; field++) {
+                    if (roles[field] != SKIP) store(b, end, end, row, roles[field], columns, offset);
+                }
+                row++;
+                field = 0;
+                lineStart = start;
+            }
+        }
+    }
+
+    private static void store(ByteBuffer b, int from, int to, int row, byte role, StudentColumns columns,
+            long offset) {
+        while (from < to && isPadding(b.get(from))) from++;
+        while (to > from && isPadding(b.get(to - 1))) to--;
+        switch (role) {
+            case STUDY -> columns.studyHours()[row] = parseNumber(b, from, to, offset);
+            case ATTENDANCE -> columns.attendance()[row] = parseNumber(b, from, to, offset);
+            case PARTICIPATION -> columns.participation()[row] = parseNumber(b, from, to, offset);
+            case SCORE -> columns.totalScore()[row] = parseNumber(b, from, to, offset);
+            case GRADE -> columns.grade()[row] = parseGrade(b, from, to);
+            default -> { }
+        }
+    }
+
+    private static boolean isPadding(byte c) {
+        return c == ' ' || c == '\t' || c == '"';
+    }
+
+    private static byte parseGrade(ByteBuffer b, int from, int to) {
+        if (to - from != 1) return 0;
+        byte c = b.get(from);
+        if (c >= 'a' && c <= 'z') return (byte) (c - 'a' + 'A');
+        return c >= 'A' && c <= 'Z' ? c : 0;
+    }
+
+    // Empty cells and Weka's "?" marker are missing. Plain decimals with at most 18 significant digits
+    // and 22 fraction digits are exact in a double and converted directly, which gives the same value
+    // as Double.parseDouble; anything else (exponents, long mantissas) goes through Double.parseDouble.
+    static double parseNumber(ByteBuffer b, int from, int to, long offset) {
+        if (from == to || (to - from == 1 && b.get(from) == '?')) return Double.NaN;
+        int i = from;
+        boolean negative = false;
+        byte c = b.get(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean digits = false;
+        for (; i < to; i++) {
+            c = b.get(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++significant > 18) return parseSlow(b, from, to, offset);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (dot) scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return parseSlow(b, from, to, offset);
+            }
+        }
+        if (!digits || scale >= POW10.length || mantissa > (1L << 53)) return parseSlow(b, from, to, offset);
+        double value = mantissa / POW10[scale];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlow(ByteBuffer b, int from, int to, long offset) {
+        byte[] bytes = new byte[to - from];
+        b.get(from, bytes);
+        String s = new String(bytes, StandardCharsets.ISO_8859_1);
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Not a number at byte " + (offset + from) + ": \"" + s + "\"", e);
+        }
+    }
+}
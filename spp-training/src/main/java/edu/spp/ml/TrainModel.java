@@ -0,0 +1,270 @@
+package edu.spp.ml;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.spp.predict.Predictor;
+import edu.spp.predict.ReferenceModel;
+import edu.spp.predict.TreeEnsemble;
+import weka.classifiers.Evaluation;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instances;
+
+public final class TrainModel {
+
+    public static final File DEFAULT_MODEL_PATH = new File("model/student_j48_passfail.model");
+    public static final File DEFAULT_COMPACT_MODEL_PATH = Predictor.DEFAULT_MODEL_PATH;
+
+    private TrainModel() {}
+
+    // Usage: TrainModel [--data <file.csv>] [--cache-dir <dir> | --no-cache] [--tune [--budget <seconds>]]
+    //                   [--cv <folds> [--repeats <n>]] [--histogram] [--bag <trees>] [--threads <n>]
+    public static void main(String[] args) throws Exception {
+        TrainReport report = train(Options.parse(args));
+        System.out.println(report.toHumanString());
+    }
+
+    public static TrainReport trainAndSaveDefaultModel() throws Exception {
+        return train(Options.DEFAULT);
+    }
+
+    // data == null reads the dataset bundled on the classpath; cacheDir == null turns the dataset cache
+    // off; folds == 0 skips cross-validation; histogram trains with HistogramTree instead of Weka's J48;
+    // bag > 0 trains that many bagged trees (BaggedEnsemble) instead of one.
+    public record Options(Path data, Path cacheDir, boolean tune, Duration budget, int folds, int repeats, int threads,
+            boolean histogram, int bag) {
+
+        public static final Options DEFAULT = new Options(null, DatasetCache.DEFAULT_DIR,
+                false, Duration.ofSeconds(60), 0, 1, Runtime.getRuntime().availableProcessors(), false, 0);
+
+        public static Options parse(String[] args) {
+            Path data = DEFAULT.data;
+            Path cacheDir = DEFAULT.cacheDir;
+            boolean tune = DEFAULT.tune;
+            Duration budget = DEFAULT.budget;
+            int folds = DEFAULT.folds;
+            int repeats = DEFAULT.repeats;
+            int threads = DEFAULT.threads;
+            boolean histogram = DEFAULT.histogram;
+            int bag = DEFAULT.bag;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data" -> data = Path.of(requireValue(args, ++i, "--data"));
+                    case "--cache-dir" -> cacheDir = Path.of(requireValue(args, ++i, "--cache-dir"));
+                    case "--no-cache" -> cacheDir = null;
+                    case "--tune" -> tune = true;
+                    case "--budget" -> budget = Duration.ofSeconds(Long.parseLong(requireValue(args, ++i, "--budget")));
+                    case "--cv" -> folds = Integer.parseInt(requireValue(args, ++i, "--cv"));
+                    case "--repeats" -> repeats = Integer.parseInt(requireValue(args, ++i, "--repeats"));
+                    case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i, "--threads"));
+                    case "--histogram" -> histogram = true;
+                    case "--bag" -> bag = Integer.parseInt(requireValue(args, ++i, "--bag"));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("--threads must be at least 1");
+            }
+            if (bag < 0) {
+                throw new IllegalArgumentException("--bag must be at least 1");
+            }
+            if (histogram && (tune || folds > 0)) {
+                throw new IllegalArgumentException("--tune and --cv train J48 and cannot be combined with --histogram");
+            }
+            if (bag > 0 && (tune || folds > 0)) {
+                throw new IllegalArgumentException("--tune and --cv evaluate a single tree and cannot be combined with --bag");
+            }
+            return new Options(data, cacheDir, tune, budget, folds, repeats, threads, histogram, bag);
+        }
+
+        private static String requireValue(String[] args, int i, String flag) {
+            if (i >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            return args[i];
+        }
+    }
+
+    public static TrainReport train(Options options) throws Exception {
+        DatasetCache.Loaded loaded = DatasetCache.load(options.data(), options.cacheDir(), options.threads());
+        PassFailDataset data = loaded.data();
+        long t0 = System.nanoTime();
+        data.shuffle(new Random(42));
+        DataLoad load = new DataLoad(loaded.source(), data.size(), loaded.cacheStatus(),
+                loaded.readNanos(), loaded.labelNanos() + System.nanoTime() - t0);
+
+        int trainSize = (int) Math.round(data.size() * 0.80);
+        if (options.bag() > 0) {
+            return trainEnsembleAndSave(data, trainSize, load, options);
+        }
+        if (options.histogram()) {
+            return trainHistogramAndSave(data, trainSize, load, options);
+        }
+        Instances train = data.toInstances(0, trainSize);
+        Instances test = data.toInstances(trainSize, data.size());
+
+        GridSearch.Report gridSearch = options.tune() ? tune(train, options) : null;
+        Hyperparameters hyperparameters = gridSearch != null ? gridSearch.best().hyperparameters() : Hyperparameters.DEFAULT;
+        return trainAndSave(hyperparameters, gridSearch, data, train, test, load, options);
+    }
+
+    // Picks the settings on a holdout carved out of the training split, so the test split stays
+    // unseen until the chosen settings are retrained on the whole training split and evaluated.
+    private static GridSearch.Report tune(Instances trainSplit, Options options) throws Exception {
+        Instances train = new Instances(trainSplit);
+        train.randomize(new Random(42));
+        int fitSize = (int) Math.round(train.numInstances() * 0.75);
+        Instances fit = new Instances(train, 0, fitSize);
+        Instances validation = new Instances(train, fitSize, train.numInstances() - fitSize);
+
+        return GridSearch.search(GridSearch.defaultGrid(), fit, validation, options.threads(), options.budget());
+    }
+
+    // Trains on train and tests on test, the 80/20 split of data. Cross-validation, when asked for,
+    // runs over all of data with the same settings; it only reports, the saved model is the 80% one.
+    private static TrainReport trainAndSave(Hyperparameters hyperparameters, GridSearch.Report gridSearch,
+            PassFailDataset data, Instances train, Instances test, DataLoad load, Options options) throws Exception {
+        CrossValidation.Report crossValidation = options.folds() > 0
+                ? CrossValidation.run(
+                        hyperparameters, data.toInstances(), options.folds(), options.repeats(), options.threads())
+                : null;
+
+        CostSensitiveClassifier model = hyperparameters.train(train);
+
+        Evaluation evalTrain = new Evaluation(train, Hyperparameters.DEFAULT.costMatrix());
+        evalTrain.evaluateModel(model, train);
+
+        Evaluation evalTest = new Evaluation(train, Hyperparameters.DEFAULT.costMatrix());
+        evalTest.evaluateModel(model, test);
+
+        ModelIO.save(model, DEFAULT_MODEL_PATH);
+        ModelIO.saveCompact(model, DataPreprocessor.buildPredictionHeader(), DEFAULT_COMPACT_MODEL_PATH);
+
+        return new TrainReport(
+                load,
+                train.numInstances() + test.numInstances(),
+                train.numInstances(),
+                test.numInstances(),
+                evalTrain.pctCorrect(),
+                evalTest.pctCorrect(),
+                hyperparameters,
+                gridSearch,
+                crossValidation,
+                DEFAULT_MODEL_PATH.getPath(),
+                model.toString()
+        );
+    }
+
+    // The histogram trainer has no Weka classifier to serialize, so only the compact model is written and
+    // the .model file is left as it was.
+    private static TrainReport trainHistogramAndSave(PassFailDataset data, int trainSize, DataLoad load, Options options)
+            throws Exception {
+        Hyperparameters hyperparameters = Hyperparameters.DEFAULT;
+        HistogramTree.Result result = HistogramTree.train(data, 0, trainSize, hyperparameters, options.threads());
+        ModelIO.saveCompact(result.model(), DEFAULT_COMPACT_MODEL_PATH);
+
+        return new TrainReport(
+                load,
+                data.size(),
+                trainSize,
+                data.size() - trainSize,
+                accuracyPct(result.model()::distribution, data, 0, trainSize),
+                accuracyPct(result.model()::distribution, data, trainSize, data.size()),
+                hyperparameters,
+                null,
+                null,
+                DEFAULT_COMPACT_MODEL_PATH.getPath(),
+                result.toHumanString() + "\n\n" + result.treeText()
+        );
+    }
+
+    // Like the histogram tree, an ensemble only exists in compact form. The trees are trained with one
+    // thread each, as many at a time as --threads allows.
+    private static TrainReport trainEnsembleAndSave(PassFailDataset data, int trainSize, DataLoad load, Options options)
+            throws Exception {
+        Hyperparameters hyperparameters = Hyperparameters.DEFAULT;
+        BaggedEnsemble.Result result = BaggedEnsemble.train(data, 0, trainSize, hyperparameters, options.bag(),
+                options.histogram(), options.threads(), 42);
+        TreeEnsemble ensemble = result.ensemble();
+        ModelIO.saveEnsemble(ensemble, DEFAULT_COMPACT_MODEL_PATH);
+
+        return new TrainReport(
+                load,
+                data.size(),
+                trainSize,
+                data.size() - trainSize,
+                accuracyPct(ensemble::distribution, data, 0, trainSize),
+                accuracyPct(ensemble::distribution, data, trainSize, data.size()),
+                hyperparameters,
+                null,
+                null,
+                DEFAULT_COMPACT_MODEL_PATH.getPath(),
+                result.toHumanString()
+        );
+    }
+
+    private static double accuracyPct(ReferenceModel model, PassFailDataset data, int from, int to) throws Exception {
+        double[] h = data.studyHours();
+        double[] a = data.attendance();
+        double[] p = data.participation();
+        int correct = 0;
+        for (int i = from; i < to; i++) {
+            double[] dist = model.distribution(h[i], a[i], p[i]);
+            int predicted = dist[PassFailDataset.PASS] > dist[PassFailDataset.FAIL] ? PassFailDataset.PASS : PassFailDataset.FAIL;
+            if (predicted == data.label(i)) correct++;
+        }
+        return to > from ? 100.0 * correct / (to - from) : 0.0;
+    }
+
+    public record DataLoad(String source, int rows, String cacheStatus, long readNanos, long labelNanos) {
+        public double rowsPerSecond() {
+            return readNanos <= 0 ? 0.0 : rows * 1e9 / readNanos;
+        }
+    }
+
+    public record TrainReport(
+            DataLoad data,
+            int totalInstances,
+            int trainInstances,
+            int testInstances,
+            double trainAccuracyPct,
+            double testAccuracyPct,
+            Hyperparameters hyperparameters,
+            GridSearch.Report gridSearch,
+            CrossValidation.Report crossValidation,
+            String modelPath,
+            String treeText
+    ) {
+        public String toHumanString() {
+            return String.format(
+                    Locale.US,
+                    """
+                    Training completed.
+                    - Data: %s (%,d rows read in %d ms, %,.0f rows/s; labelled and shuffled in %d ms)
+                    - Dataset cache: %s
+                    - Instances: total=%d, train=%d, test=%d
+                    - Accuracy: train=%.2f%%, test=%.2f%%
+                    - Settings: %s
+                    - Model saved to: %s
+                    %s%s
+                    Tree:
+                    %s
+                    """,
+                    data.source(), data.rows(), data.readNanos() / 1_000_000L, data.rowsPerSecond(),
+                    data.labelNanos() / 1_000_000L,
+                    data.cacheStatus(),
+                    totalInstances, trainInstances, testInstances,
+                    trainAccuracyPct, testAccuracyPct,
+                    hyperparameters.toHumanString(),
+                    modelPath.equals(DEFAULT_COMPACT_MODEL_PATH.getPath())
+                            ? modelPath + " (compact only)"
+                            : modelPath + " (compact copy: " + DEFAULT_COMPACT_MODEL_PATH.getPath() + ")",
+                    gridSearch == null ? "" : "\n" + gridSearch.toHumanString(),
+                    crossValidation == null ? "" : "\n" + crossValidation.toHumanString(),
+                    treeText
+            );
+        }
+    }
+}
+
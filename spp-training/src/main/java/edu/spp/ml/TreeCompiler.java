@@ -0,0 +1,221 @@
+package edu.spp.ml;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import edu.spp.predict.CompiledTree;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.Classifier;
+import weka.classifiers.CostMatrix;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.classifiers.trees.J48;
+import weka.classifiers.trees.j48.BinC45Split;
+import weka.classifiers.trees.j48.C45Split;
+import weka.classifiers.trees.j48.ClassifierSplitModel;
+import weka.classifiers.trees.j48.ClassifierTree;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public final class TreeCompiler {
+
+    private TreeCompiler() {}
+
+    public static CompiledTree compile(Classifier model, Instances header) throws Exception {
+        Builder builder = new Builder(model, header);
+        return builder.build(builder.addRoot());
+    }
+
+    // The compiled tree plus what the Weka model needs beyond it: branch weights for missing values,
+    // leaf probabilities before the cost rule, and the cost matrix itself.
+    public static TreeModel export(Classifier model, Instances header) throws Exception {
+        Builder builder = new Builder(model, header);
+        int root = builder.addRoot();
+        CompiledTree tree = builder.build(root);
+
+        double[][] costMatrix = null;
+        if (model instanceof CostSensitiveClassifier cs && cs.getMinimizeExpectedCost()) {
+            CostMatrix cm = cs.getCostMatrix();
+            int k = header.numClasses();
+            if (cm.numColumns() != k) {
+                throw new IllegalArgumentException("Cost matrix is " + cm.numColumns() + "x" + cm.numColumns() + ", expected " + k);
+            }
+            costMatrix = new double[k][k];
+            for (int actual = 0; actual < k; actual++) {
+                for (int predicted = 0; predicted < k; predicted++) costMatrix[actual][predicted] = cm.getElement(actual, predicted);
+            }
+        }
+
+        String[] featureNames = new String[TreeModel.NUM_FEATURES];
+        featureNames[CompiledTree.FEATURE_STUDY_HOURS] = DataPreprocessor.ATTR_STUDY_HOURS;
+        featureNames[CompiledTree.FEATURE_ATTENDANCE] = DataPreprocessor.ATTR_ATTENDANCE;
+        featureNames[CompiledTree.FEATURE_PARTICIPATION] = DataPreprocessor.ATTR_PARTICIPATION;
+        return new TreeModel(
+                featureNames,
+                header.classAttribute().name(),
+                tree,
+                Arrays.copyOf(builder.leftWeight, builder.numNodes),
+                Arrays.copyOf(builder.rightWeight, builder.numNodes),
+                Arrays.copyOf(builder.leafProbability, builder.numLeaves * header.numClasses()),
+                costMatrix);
+    }
+
+    public static ClassifierTree rootOf(Classifier model) throws ReflectiveOperationException {
+        Classifier base = model instanceof CostSensitiveClassifier cs ? cs.getClassifier() : model;
+        if (!(base instanceof J48 j48)) {
+            throw new IllegalArgumentException("Only J48 models can be compiled, got: " + base.getClass().getName());
+        }
+        Field rootField = J48.class.getDeclaredField("m_root");
+        rootField.setAccessible(true);
+        return (ClassifierTree) rootField.get(j48);
+    }
+
+    public static int featureOf(Attribute attribute) {
+        return switch (attribute.name()) {
+            case DataPreprocessor.ATTR_STUDY_HOURS -> CompiledTree.FEATURE_STUDY_HOURS;
+            case DataPreprocessor.ATTR_ATTENDANCE -> CompiledTree.FEATURE_ATTENDANCE;
+            case DataPreprocessor.ATTR_PARTICIPATION -> CompiledTree.FEATURE_PARTICIPATION;
+            default -> throw new IllegalArgumentException("Unsupported split attribute: " + attribute.name());
+        };
+    }
+
+    private static final class Builder {
+        private final Classifier model;
+        private final Classifier tree;
+        private final Instances header;
+        private final int numClasses;
+
+        private int[] feature = new int[16];
+        private double[] threshold = new double[16];
+        private int[] left = new int[16];
+        private int[] right = new int[16];
+        private double[] leftWeight = new double[16];
+        private double[] rightWeight = new double[16];
+        private int numNodes;
+
+        private double[] leafDistribution = new double[32];
+        private double[] leafProbability = new double[32];
+        private int numLeaves;
+
+        Builder(Classifier model, Instances header) {
+            this.model = model;
+            this.tree = model instanceof CostSensitiveClassifier cs ? cs.getClassifier() : model;
+            this.header = header;
+            this.numClasses = header.numClasses();
+        }
+
+        int addRoot() throws Exception {
+            double[] lo = new double[3];
+            double[] hi = new double[3];
+            Arrays.fill(lo, Double.NEGATIVE_INFINITY);
+            Arrays.fill(hi, Double.POSITIVE_INFINITY);
+            return add(rootOf(model), lo, hi);
+        }
+
+        int add(ClassifierTree node, double[] lo, double[] hi) throws Exception {
+            if (node.isLeaf()) {
+                return ~addLeaf(lo, hi);
+            }
+
+            ClassifierSplitModel split = node.getLocalModel();
+            int attIndex;
+            double splitPoint;
+            if (split instanceof C45Split c45) {
+                attIndex = c45.attIndex();
+                splitPoint = c45.splitPoint();
+            } else if (split instanceof BinC45Split bin) {
+                attIndex = bin.attIndex();
+                splitPoint = bin.splitPoint();
+            } else {
+                throw new IllegalArgumentException("Unsupported split model: " + split.getClass().getName());
+            }
+            Attribute attribute = header.attribute(attIndex);
+            if (!attribute.isNumeric() || node.getSons().length != 2) {
+                throw new IllegalArgumentException("Only binary numeric splits can be compiled: " + attribute.name());
+            }
+            int f = featureOf(attribute);
+
+            int id = numNodes++;
+            ensureNodeCapacity();
+            feature[id] = f;
+            threshold[id] = splitPoint;
+            // Same weights J48 uses to send a missing value down both branches.
+            leftWeight[id] = split.distribution().perBag(0) / split.distribution().total();
+            rightWeight[id] = split.distribution().perBag(1) / split.distribution().total();
+
+            double savedHi = hi[f];
+            hi[f] = Math.min(savedHi, splitPoint);
+            // The subtrees may grow the arrays, so each reference is stored after its add() returns.
+            int leftRef = add(node.getSons()[0], lo, hi);
+            left[id] = leftRef;
+            hi[f] = savedHi;
+
+            double savedLo = lo[f];
+            lo[f] = Math.max(savedLo, splitPoint);
+            int rightRef = add(node.getSons()[1], lo, hi);
+            right[id] = rightRef;
+            lo[f] = savedLo;
+
+            return id;
+        }
+
+        // The leaf output is taken from the full model on a point inside the leaf's region, so the
+        // Laplace correction and the cost-matrix decision rule are applied exactly as Weka does.
+        private int addLeaf(double[] lo, double[] hi) throws Exception {
+            Instance inst = new DenseInstance(header.numAttributes());
+            inst.setDataset(header);
+            inst.setValue(header.attribute(DataPreprocessor.ATTR_STUDY_HOURS),
+                    representative(lo[CompiledTree.FEATURE_STUDY_HOURS], hi[CompiledTree.FEATURE_STUDY_HOURS]));
+            inst.setValue(header.attribute(DataPreprocessor.ATTR_ATTENDANCE),
+                    representative(lo[CompiledTree.FEATURE_ATTENDANCE], hi[CompiledTree.FEATURE_ATTENDANCE]));
+            inst.setValue(header.attribute(DataPreprocessor.ATTR_PARTICIPATION),
+                    representative(lo[CompiledTree.FEATURE_PARTICIPATION], hi[CompiledTree.FEATURE_PARTICIPATION]));
+            inst.setMissing(header.classIndex());
+            double[] dist = model.distributionForInstance(inst);
+            double[] probs = tree.distributionForInstance(inst);
+
+            int id = numLeaves++;
+            if ((id + 1) * numClasses > leafDistribution.length) {
+                int cap = Math.max(leafDistribution.length * 2, (id + 1) * numClasses);
+                leafDistribution = Arrays.copyOf(leafDistribution, cap);
+                leafProbability = Arrays.copyOf(leafProbability, cap);
+            }
+            System.arraycopy(dist, 0, leafDistribution, id * numClasses, numClasses);
+            System.arraycopy(probs, 0, leafProbability, id * numClasses, numClasses);
+            return id;
+        }
+
+        // Picks a value in (lo, hi]; splits send "<= t" left, so the upper bound itself belongs to the region.
+        private static double representative(double lo, double hi) {
+            if (!Double.isInfinite(hi)) return hi;
+            if (!Double.isInfinite(lo)) return lo + 1.0;
+            return 0.0;
+        }
+
+        private void ensureNodeCapacity() {
+            if (numNodes > feature.length) {
+                int cap = feature.length * 2;
+                feature = Arrays.copyOf(feature, cap);
+                threshold = Arrays.copyOf(threshold, cap);
+                left = Arrays.copyOf(left, cap);
+                right = Arrays.copyOf(right, cap);
+                leftWeight = Arrays.copyOf(leftWeight, cap);
+                rightWeight = Arrays.copyOf(rightWeight, cap);
+            }
+        }
+
+        CompiledTree build(int root) {
+            String[] labels = new String[numClasses];
+            for (int c = 0; c < numClasses; c++) labels[c] = header.classAttribute().value(c);
+            return new CompiledTree(
+                    root,
+                    Arrays.copyOf(feature, numNodes),
+                    Arrays.copyOf(threshold, numNodes),
+                    Arrays.copyOf(left, numNodes),
+                    Arrays.copyOf(right, numNodes),
+                    labels,
+                    Arrays.copyOf(leafDistribution, numLeaves * numClasses));
+        }
+    }
+}
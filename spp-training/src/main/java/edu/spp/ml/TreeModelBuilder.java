@@ -0,0 +1,125 @@
+package edu.spp.ml;
+
+import java.util.Arrays;
+
+import edu.spp.predict.CompiledTree;
+import edu.spp.predict.TreeModel;
+
+// Collects the nodes of a pass/fail tree grown outside Weka and turns them into a TreeModel with the same
+// conventions TreeCompiler uses for J48: splits send "<= threshold" left, leaves are referenced as
+// ~leafId, leaf probabilities are kept before the cost rule and the leaf distribution after it.
+final class TreeModelBuilder {
+
+    private static final int NUM_CLASSES = 2;
+    private static final String[] CLASS_LABELS = {"FAIL", "PASS"};
+
+    private final double[][] costMatrix;
+
+    private int[] feature = new int[16];
+    private double[] threshold = new double[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private double[] leftWeight = new double[16];
+    private double[] rightWeight = new double[16];
+    private int numNodes;
+
+    private double[] leafDistribution = new double[32];
+    private double[] leafProbability = new double[32];
+    private int numLeaves;
+
+    // costMatrix is [actual][predicted]; null keeps the most probable class at every leaf.
+    TreeModelBuilder(double[][] costMatrix) {
+        this.costMatrix = costMatrix;
+    }
+
+    // The branch weights are the share of training rows on each side, used for rows missing the feature;
+    // children are attached later with children(), once they have ids of their own.
+    int split(int f, double t, double leftRows, double rightRows) {
+        int id = numNodes++;
+        if (numNodes > feature.length) {
+            int cap = feature.length * 2;
+            feature = Arrays.copyOf(feature, cap);
+            threshold = Arrays.copyOf(threshold, cap);
+            left = Arrays.copyOf(left, cap);
+            right = Arrays.copyOf(right, cap);
+            leftWeight = Arrays.copyOf(leftWeight, cap);
+            rightWeight = Arrays.copyOf(rightWeight, cap);
+        }
+        double total = leftRows + rightRows;
+        feature[id] = f;
+        threshold[id] = t;
+        leftWeight[id] = total > 0 ? leftRows / total : 0.5;
+        rightWeight[id] = total > 0 ? rightRows / total : 0.5;
+        return id;
+    }
+
+    void children(int id, int leftRef, int rightRef) {
+        left[id] = leftRef;
+        right[id] = rightRef;
+    }
+
+    int leaf(double[] probs) {
+        int id = numLeaves++;
+        if ((id + 1) * NUM_CLASSES > leafDistribution.length) {
+            leafDistribution = Arrays.copyOf(leafDistribution, leafDistribution.length * 2);
+            leafProbability = Arrays.copyOf(leafProbability, leafProbability.length * 2);
+        }
+        double[] dist = costMatrix == null ? probs : cheapest(probs);
+        System.arraycopy(dist, 0, leafDistribution, id * NUM_CLASSES, NUM_CLASSES);
+        System.arraycopy(probs, 0, leafProbability, id * NUM_CLASSES, NUM_CLASSES);
+        return ~id;
+    }
+
+    TreeModel build(int rootRef) {
+        String[] featureNames = new String[TreeModel.NUM_FEATURES];
+        featureNames[CompiledTree.FEATURE_STUDY_HOURS] = DataPreprocessor.ATTR_STUDY_HOURS;
+        featureNames[CompiledTree.FEATURE_ATTENDANCE] = DataPreprocessor.ATTR_ATTENDANCE;
+        featureNames[CompiledTree.FEATURE_PARTICIPATION] = DataPreprocessor.ATTR_PARTICIPATION;
+        CompiledTree tree = new CompiledTree(
+                rootRef,
+                Arrays.copyOf(feature, numNodes),
+                Arrays.copyOf(threshold, numNodes),
+                Arrays.copyOf(left, numNodes),
+                Arrays.copyOf(right, numNodes),
+                CLASS_LABELS,
+                Arrays.copyOf(leafDistribution, numLeaves * NUM_CLASSES));
+        return new TreeModel(
+                featureNames,
+                DataPreprocessor.ATTR_TARGET,
+                tree,
+                Arrays.copyOf(leftWeight, numNodes),
+                Arrays.copyOf(rightWeight, numNodes),
+                Arrays.copyOf(leafProbability, numLeaves * NUM_CLASSES),
+                costMatrix);
+    }
+
+    // (n_c + 1) / (n + k) with Laplace, n_c / n without; an empty leaf gets the uniform distribution.
+    static double[] probabilities(double[] counts, boolean laplace) {
+        double total = 0.0;
+        for (double c : counts) total += c;
+        double[] probs = new double[counts.length];
+        for (int c = 0; c < counts.length; c++) {
+            if (laplace) probs[c] = (counts[c] + 1.0) / (total + counts.length);
+            else probs[c] = total > 0 ? counts[c] / total : 1.0 / counts.length;
+        }
+        return probs;
+    }
+
+    // All weight on the decision with the lowest expected cost, the first one on ties, as TreeModel and
+    // Weka's CostSensitiveClassifier do.
+    private double[] cheapest(double[] probs) {
+        int best = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int predicted = 0; predicted < NUM_CLASSES; predicted++) {
+            double cost = 0.0;
+            for (int actual = 0; actual < NUM_CLASSES; actual++) cost += probs[actual] * costMatrix[actual][predicted];
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = predicted;
+            }
+        }
+        double[] out = new double[NUM_CLASSES];
+        out[best] = 1.0;
+        return out;
+    }
+}
@@ -0,0 +1,141 @@
+package edu.spp.ml;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import edu.spp.predict.TreeModel;
+
+// Folds new graded records into an incremental tree instead of retraining on the whole history. The
+// learner state is kept in --state between runs, and after every --snapshot-every rows (and at the end)
+// both the state and a compact model are written atomically through ModelIO. Pointing --model at the
+// model the server or UI loads publishes each snapshot to them like a retrained model.
+//
+// The first run, with no state file, starts an empty tree; without --data it learns the bundled dataset.
+// Later runs resume the state and need --data, since the bundled rows have already been learned.
+//
+// Usage: UpdateModel [--data <new.csv>] [--state <file>] [--model <file.sppm>] [--snapshot-every <rows>]
+//                    [--threads <n>]
+public final class UpdateModel {
+
+    public static final File DEFAULT_STATE_PATH = new File("model/student_hoeffding.state");
+    public static final File DEFAULT_MODEL_PATH = new File("model/student_hoeffding.sppm");
+
+    private UpdateModel() {}
+
+    public static void main(String[] args) throws Exception {
+        UpdateReport report = update(Options.parse(args));
+        System.out.println(report.toHumanString());
+    }
+
+    public record Options(Path data, File state, File model, int snapshotEvery, int threads) {
+
+        public static final Options DEFAULT = new Options(null, DEFAULT_STATE_PATH, DEFAULT_MODEL_PATH,
+                1_000_000, Runtime.getRuntime().availableProcessors());
+
+        public static Options parse(String[] args) {
+            Path data = DEFAULT.data;
+            File state = DEFAULT.state;
+            File model = DEFAULT.model;
+            int snapshotEvery = DEFAULT.snapshotEvery;
+            int threads = DEFAULT.threads;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--data" -> data = Path.of(requireValue(args, ++i, "--data"));
+                    case "--state" -> state = new File(requireValue(args, ++i, "--state"));
+                    case "--model" -> model = new File(requireValue(args, ++i, "--model"));
+                    case "--snapshot-every" -> snapshotEvery = Integer.parseInt(requireValue(args, ++i, "--snapshot-every"));
+                    case "--threads" -> threads = Integer.parseInt(requireValue(args, ++i, "--threads"));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (snapshotEvery < 1) {
+                throw new IllegalArgumentException("--snapshot-every must be at least 1");
+            }
+            if (threads < 1) {
+                throw new IllegalArgumentException("--threads must be at least 1");
+            }
+            return new Options(data, state, model, snapshotEvery, threads);
+        }
+
+        private static String requireValue(String[] args, int i, String flag) {
+            if (i >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+            return args[i];
+        }
+    }
+
+    public static UpdateReport update(Options options) throws Exception {
+        boolean resumed = options.state().isFile();
+        if (resumed && options.data() == null) {
+            throw new IllegalArgumentException("--data is required when resuming " + options.state().getPath()
+                    + "; only the first run learns the bundled dataset.");
+        }
+        IncrementalTree learner = resumed
+                ? ModelIO.loadLearner(options.state())
+                : new IncrementalTree(Hyperparameters.DEFAULT.costArray());
+        long rowsBefore = learner.rowsSeen();
+
+        // New records are read once, in file order, and never cached: the next run brings different rows.
+        DatasetCache.Loaded loaded = DatasetCache.load(options.data(), null, options.threads());
+        PassFailDataset data = loaded.data();
+
+        long updateNanos = 0;
+        int snapshots = 0;
+        for (int from = 0; from < data.size(); from += options.snapshotEvery()) {
+            int to = (int) Math.min(data.size(), (long) from + options.snapshotEvery());
+            long t0 = System.nanoTime();
+            learner.update(data, from, to);
+            updateNanos += System.nanoTime() - t0;
+            snapshot(learner, options);
+            snapshots++;
+        }
+        if (snapshots == 0) snapshot(learner, options);
+
+        return new UpdateReport(loaded.source(), data.size(), loaded.readNanos() + loaded.labelNanos(), updateNanos,
+                resumed, rowsBefore, learner.toHumanString(), Math.max(1, snapshots),
+                options.state().getPath(), options.model().getPath());
+    }
+
+    private static void snapshot(IncrementalTree learner, Options options) throws Exception {
+        ModelIO.saveLearner(learner, options.state());
+        TreeModel model = learner.export();
+        ModelIO.saveCompact(model, options.model());
+    }
+
+    public record UpdateReport(
+            String source,
+            int newRows,
+            long readNanos,
+            long updateNanos,
+            boolean resumed,
+            long rowsBefore,
+            String learner,
+            int snapshots,
+            String statePath,
+            String modelPath
+    ) {
+        public double rowsPerSecond() {
+            return updateNanos <= 0 ? 0.0 : newRows * 1e9 / updateNanos;
+        }
+
+        public String toHumanString() {
+            return String.format(
+                    Locale.US,
+                    """
+                    Incremental update completed.
+                    - Data: %s (%,d new rows read in %d ms)
+                    - Learner state: %s (%s)
+                    - Update: %d ms, %,.0f rows/s
+                    - Now: %s
+                    - %d snapshot(s) saved: state %s, model %s
+                    """,
+                    source, newRows, readNanos / 1_000_000L,
+                    resumed ? String.format(Locale.US, "resumed at %,d rows", rowsBefore) : "started empty",
+                    statePath,
+                    updateNanos / 1_000_000L, rowsPerSecond(),
+                    learner,
+                    snapshots, statePath, modelPath
+            );
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.spp.ml;
+
+import java.io.File;
+import java.io.IOException;
+
+import edu.spp.predict.LoadedModel;
+import edu.spp.predict.ModelSource;
+import edu.spp.predict.ReferenceModel;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.Classifier;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+// Lets the runtime serve Java-serialized Weka models (registered in META-INF/services). The tree is
+// exported for the compiled backends and the explainer; the classifier itself stays the reference.
+public final class WekaModelSource implements ModelSource {
+
+    @Override
+    public boolean canRead(File file) throws IOException {
+        return ModelIO.detect(file) == ModelIO.Format.JAVA_SERIALIZED;
+    }
+
+    @Override
+    public LoadedModel read(File file) throws Exception {
+        ModelIO.ModelFile model = ModelIO.read(file);
+        return switch (model.format()) {
+            case JAVA_SERIALIZED -> forPrediction(model.classifier());
+            case COMPACT -> LoadedModel.of(model.treeModel());
+            case ENSEMBLE -> LoadedModel.of(model.ensemble());
+        };
+    }
+
+    public static LoadedModel forPrediction(Classifier model) throws Exception {
+        Instances header = DataPreprocessor.buildPredictionHeader();
+        TreeModel treeModel = TreeCompiler.export(model, header);
+        return new LoadedModel(treeModel, new WekaReference(model, header));
+    }
+
+    private static final class WekaReference implements ReferenceModel {
+        private final Classifier model;
+        private final Instances header;
+        private final int study;
+        private final int attendance;
+        private final int participation;
+
+        WekaReference(Classifier model, Instances header) {
+            this.model = model;
+            this.header = header;
+            this.study = header.attribute(DataPreprocessor.ATTR_STUDY_HOURS).index();
+            this.attendance = header.attribute(DataPreprocessor.ATTR_ATTENDANCE).index();
+            this.participation = header.attribute(DataPreprocessor.ATTR_PARTICIPATION).index();
+        }
+
+        // The Weka object graph makes no thread-safety promises, so calls into it are serialized.
+        @Override
+        public double[] distribution(double studyHours, double attendancePct, double participationScore) throws Exception {
+            Instance inst = new DenseInstance(header.numAttributes());
+            inst.setDataset(header);
+            inst.setValue(study, studyHours);
+            inst.setValue(attendance, attendancePct);
+            inst.setValue(participation, participationScore);
+            inst.setMissing(header.classIndex());
+            synchronized (model) {
+                return model.distributionForInstance(inst);
+            }
+        }
+    }
+}
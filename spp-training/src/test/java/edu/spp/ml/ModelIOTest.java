@@ -0,0 +1,74 @@
+package edu.spp.ml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.spp.predict.LoadedModel;
+import edu.spp.predict.TreeEnsemble;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.Classifier;
+
+class ModelIOTest {
+
+    private static Classifier classifier;
+    private static TreeModel treeModel;
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void train() throws Exception {
+        classifier = new Hyperparameters(0.25f, 2, true, 5.0)
+                .train(DataPreprocessor.buildPassFailTrainingData(TreeCompilerTest.diagonalColumns(500)));
+        treeModel = TreeCompiler.export(classifier, DataPreprocessor.buildPredictionHeader());
+    }
+
+    @Test
+    void detectsAndReadsEveryFormat() throws Exception {
+        File serialized = dir.resolve("model.model").toFile();
+        File compact = dir.resolve("model.sppm").toFile();
+        File ensemble = dir.resolve("ensemble.sppm").toFile();
+        ModelIO.save(classifier, serialized);
+        ModelIO.saveCompact(treeModel, compact);
+        ModelIO.saveEnsemble(new TreeEnsemble(List.of(treeModel, treeModel)), ensemble);
+
+        assertEquals(ModelIO.Format.JAVA_SERIALIZED, ModelIO.detect(serialized));
+        assertEquals(ModelIO.Format.COMPACT, ModelIO.detect(compact));
+        assertEquals(ModelIO.Format.ENSEMBLE, ModelIO.detect(ensemble));
+
+        assertNotNull(ModelIO.read(serialized).classifier());
+        assertNotNull(ModelIO.read(compact).treeModel());
+        ModelIO.ModelFile read = ModelIO.read(ensemble);
+        assertEquals(ModelIO.Format.ENSEMBLE, read.format());
+        assertEquals(2, read.ensemble().size());
+        assertArrayEquals(treeModel.distribution(20.0, 80.0, 5.0), read.ensemble().distribution(20.0, 80.0, 5.0));
+    }
+
+    // The runtime reads compact and ensemble files itself; the Weka source only claims serialized models.
+    @Test
+    void wekaSourceOnlyClaimsSerializedModels() throws Exception {
+        File serialized = dir.resolve("model.model").toFile();
+        File ensemble = dir.resolve("ensemble.sppm").toFile();
+        ModelIO.save(classifier, serialized);
+        ModelIO.saveEnsemble(new TreeEnsemble(List.of(treeModel)), ensemble);
+
+        WekaModelSource source = new WekaModelSource();
+        assertTrue(source.canRead(serialized));
+        assertFalse(source.canRead(ensemble));
+        LoadedModel loaded = source.read(ensemble);
+        assertNotNull(loaded.ensemble());
+        assertThrows(IllegalStateException.class, () -> ModelIO.load(ensemble));
+    }
+}
@@ -0,0 +1,130 @@
+package edu.spp.ml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class StudentCsvReaderTest {
+
+    private static double parse(String field) {
+        ByteBuffer b = ByteBuffer.wrap(field.getBytes(StandardCharsets.ISO_8859_1));
+        return StudentCsvReader.parseNumber(b, 0, b.limit(), 0);
+    }
+
+    private static StudentColumns read(String csv, int threads) throws Exception {
+        return StudentCsvReader.read(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), threads);
+    }
+
+    @Test
+    void parsesPlainDecimalsExactly() {
+        for (String s : new String[] {"0", "7", "-3", "+2.5", "12.75", "0.1", "-0.0", "007.50", ".5", "5.",
+                "99.99", "123456789012345678", "0.0000000000000000000001", "9007199254740993"}) {
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(parse(s)), s);
+        }
+    }
+
+    // Every value the fast path takes must be bit-for-bit what Double.parseDouble gives.
+    @Test
+    void agreesWithParseDoubleOnRandomDecimals() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200_000; i++) {
+            int scale = random.nextInt(8);
+            long unscaled = random.nextLong() % 10_000_000_000L;
+            String s = scale == 0 ? Long.toString(unscaled)
+                    : new BigDecimal(BigInteger.valueOf(unscaled), scale).toPlainString();
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(parse(s)), s);
+        }
+    }
+
+    @Test
+    void fallsBackForExponentsAndLongMantissas() {
+        assertEquals(1.5e3, parse("1.5e3"));
+        assertEquals(-2E-2, parse("-2E-2"));
+        assertEquals(Double.parseDouble("1234567890.1234567890123"), parse("1234567890.1234567890123"));
+        assertEquals(Double.parseDouble("0.12345678901234567890123456"), parse("0.12345678901234567890123456"));
+    }
+
+    @Test
+    void treatsEmptyAndQuestionMarkAsMissing() {
+        assertTrue(Double.isNaN(parse("")));
+        assertTrue(Double.isNaN(parse("?")));
+    }
+
+    @Test
+    void reportsTheByteOffsetOfBadNumbers() {
+        ByteBuffer b = ByteBuffer.wrap("1,abc,3".getBytes(StandardCharsets.ISO_8859_1));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> StudentCsvReader.parseNumber(b, 2, 5, 100));
+        assertEquals("Not a number at byte 102: \"abc\"", e.getMessage());
+        assertThrows(IllegalStateException.class, () -> parse("-"));
+        assertThrows(IllegalStateException.class, () -> parse("1.2.3"));
+    }
+
+    @Test
+    void readsColumnsByNameInAnyOrder() throws Exception {
+        String csv = "\uFEFFGrade, \"class_participation\",extra,weekly_self_study_hours,attendance_percentage\r\n"
+                + "a,5,x,12.5,80\r\n"
+                + "\r\n"
+                + "\"F\",?,y,3,\r\n"
+                + "B,7.25,z,,91.5";
+        StudentColumns columns = read(csv, 2);
+        assertEquals(3, columns.size());
+        assertArrayEquals(new double[] {12.5, 3, Double.NaN}, columns.studyHours());
+        assertArrayEquals(new double[] {80, Double.NaN, 91.5}, columns.attendance());
+        assertArrayEquals(new double[] {5, Double.NaN, 7.25}, columns.participation());
+        assertArrayEquals(new byte[] {'A', 'F', 'B'}, columns.grade());
+        assertNull(columns.totalScore());
+    }
+
+    @Test
+    void fillsShortRowsWithMissingValues() throws Exception {
+        StudentColumns columns = read("weekly_self_study_hours,attendance_percentage,class_participation,total_score\n1,2\n", 1);
+        assertEquals(1, columns.size());
+        assertEquals(2.0, columns.attendance()[0]);
+        assertTrue(Double.isNaN(columns.participation()[0]));
+        assertTrue(Double.isNaN(columns.totalScore()[0]));
+    }
+
+    @Test
+    void rejectsMissingColumns() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> read("weekly_self_study_hours,attendance_percentage,total_score\n1,2,3\n", 1));
+        assertEquals("Dataset buffer is missing column: class_participation", e.getMessage());
+        assertThrows(IllegalStateException.class,
+                () -> read("weekly_self_study_hours,attendance_percentage,class_participation\n1,2,3\n", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> read("weekly_self_study_hours,attendance_percentage,class_participation,grade\n", 0));
+    }
+
+    // Large enough for several chunks, so rows are split across threads and chunk boundaries.
+    @Test
+    void multiChunkReadsMatchRowByRow() throws Exception {
+        int rows = 200_000;
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("student_id,weekly_self_study_hours,attendance_percentage,class_participation,total_score\n");
+        double[] study = new double[rows];
+        double[] score = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            study[i] = random.nextInt(4001) / 100.0;
+            score[i] = random.nextInt(1001) / 10.0;
+            csv.append(i).append(',').append(String.format(Locale.US, "%.2f", study[i])).append(",75.5,")
+                    .append(i % 10).append(',').append(score[i]).append('\n');
+        }
+        assertTrue(csv.length() > 4 * StudentCsvReader.MIN_CHUNK_BYTES);
+        StudentColumns columns = read(csv.toString(), 4);
+        assertEquals(rows, columns.size());
+        assertArrayEquals(study, columns.studyHours());
+        assertArrayEquals(score, columns.totalScore());
+        for (int i = 0; i < rows; i++) assertEquals(i % 10, columns.participation()[i]);
+    }
+}
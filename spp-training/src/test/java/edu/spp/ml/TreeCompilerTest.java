@@ -0,0 +1,62 @@
+package edu.spp.ml;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.spp.explain.J48Explainer;
+import edu.spp.predict.StudentInput;
+import edu.spp.predict.TreeModel;
+import weka.classifiers.meta.CostSensitiveClassifier;
+import weka.core.Instance;
+import weka.core.Instances;
+
+class TreeCompilerTest {
+
+    // Axis-parallel splits can only approximate a diagonal boundary in steps, so with minNumObj=2 the
+    // tree has far more inner nodes than the builders start with and both grow their arrays mid-subtree.
+    @Test
+    void compilesAndScoresTreesThatOutgrowTheInitialArrays() throws Exception {
+        Instances train = DataPreprocessor.buildPassFailTrainingData(diagonalColumns(5_000));
+        CostSensitiveClassifier model = new Hyperparameters(0.25f, 2, true, 5.0).train(train);
+        TreeModel compiled = TreeCompiler.export(model, DataPreprocessor.buildPredictionHeader());
+        assertTrue(compiled.tree().numNodes() > 16, "tree has only " + compiled.tree().numNodes() + " inner nodes");
+
+        J48Explainer fromText = new J48Explainer(model.toString());
+        J48Explainer fromTree = J48Explainer.fromTree(compiled);
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < train.numInstances(); i++) {
+                Instance row = train.instance(i);
+                double h = row.value(train.attribute(DataPreprocessor.ATTR_STUDY_HOURS));
+                double a = row.value(train.attribute(DataPreprocessor.ATTR_ATTENDANCE));
+                double p = row.value(train.attribute(DataPreprocessor.ATTR_PARTICIPATION));
+                assertArrayEquals(model.distributionForInstance(row), compiled.distribution(h, a, p), "row " + i);
+
+                StudentInput input = new StudentInput(i, h, a, p);
+                assertEquals(fromText.explain(input, "PASS").englishText(), fromTree.explain(input, "PASS").englishText(), "row " + i);
+            }
+        });
+    }
+
+    static StudentColumns diagonalColumns(int rows) {
+        Random random = new Random(42);
+        double[] study = new double[rows];
+        double[] attendance = new double[rows];
+        double[] participation = new double[rows];
+        double[] score = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            study[i] = Math.round(random.nextDouble() * 400) / 10.0;
+            attendance[i] = Math.round((40 + random.nextDouble() * 60) * 10) / 10.0;
+            participation[i] = Math.round(random.nextDouble() * 100) / 10.0;
+            boolean pass = study[i] > (attendance[i] - 40) * 0.4 + participation[i];
+            score[i] = pass ? 70.0 : 40.0;
+        }
+        return new StudentColumns(rows, study, attendance, participation, score, null);
+    }
+}
@@ -3,14 +3,14 @@ setlocal
 
 cd /d %~dp0
 
-if not exist out mkdir out
+if not exist out\training mkdir out\training
 
 rem Compile (requires JDK on PATH)
-dir /s /b src\main\java\edu\*.java > out\sources.txt
-javac -cp "lib\weka.jar" -d out @out\sources.txt
+dir /s /b spp-runtime\src\main\java\*.java spp-training\src\main\java\*.java > out\training-sources.txt
+javac -cp "lib\weka.jar" -d out\training @out\training-sources.txt
 
 rem Run training
-java --add-opens java.base/java.lang=ALL-UNNAMED -cp "out;lib\weka.jar;src\main\resources" edu.spp.ml.TrainModel
+java --add-opens java.base/java.lang=ALL-UNNAMED -cp "out\training;lib\weka.jar;spp-training\src\main\resources" edu.spp.ml.TrainModel %*
 
 endlocal
 
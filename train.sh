@@ -4,17 +4,17 @@ set -euo pipefail
 ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
 cd "$ROOT_DIR"
 
-mkdir -p out
+mkdir -p out/training
 
 # Compile
 javac \
   -cp "lib/weka.jar" \
-  -d out \
-  $(find src/main/java/edu -name "*.java")
+  -d out/training \
+  $(find spp-runtime/src/main/java spp-training/src/main/java -name "*.java")
 
 # Run training
 java \
   --add-opens java.base/java.lang=ALL-UNNAMED \
-  -cp "out;lib/weka.jar;src/main/resources" \
-  edu.spp.ml.TrainModel
+  -cp "out/training;lib/weka.jar;spp-training/src/main/resources" \
+  edu.spp.ml.TrainModel "$@"
 